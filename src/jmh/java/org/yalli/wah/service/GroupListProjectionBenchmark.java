@@ -0,0 +1,109 @@
+package org.yalli.wah.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.yalli.wah.dao.entity.GroupEntity;
+import org.yalli.wah.dao.repository.GroupRepository;
+import org.yalli.wah.mapper.GroupMapper;
+import org.yalli.wah.model.dto.GroupLightDto;
+
+import java.util.concurrent.TimeUnit;
+
+// One group list page through ApproximatePager on a migrated, seeded PostgreSQL (needs Docker): full entities
+// mapped with GroupMapper vs the constructor projection GroupService.getAllGroupsLight uses. Page 1 is read so
+// the cached total keeps the count query out of the measurement. For heap allocated per page, pass the gc
+// profiler to the run instead of enabling it for every benchmark:
+//   ./gradlew jmhJar && java -jar build/libs/yalli-0.0.1-SNAPSHOT-jmh.jar GroupListProjection -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GroupListProjectionBenchmark {
+    private static final int GROUPS = 20000;
+    private static final String OWNER_SQL = "INSERT INTO users (full_name, email, password, country, " +
+            "email_confirmed, number_of_not_completed_fields, created_at) " +
+            "VALUES ('owner', 'owner@example.com', repeat('x', 60), 'USA', true, 0, now())";
+    private static final String GROUPS_SQL = "INSERT INTO groups (title, description, about, country, category, " +
+            "gallery, member_count, rename_count, user_id, created_at) " +
+            "SELECT 'group ' || g, repeat('d', 8000), repeat('a', 4000), (ARRAY ['Germany', 'USA'])[1 + g % 2], " +
+            "'SPORT', (SELECT jsonb_agg('gallery/image-' || i || '.png') FROM generate_series(1, 12) i), 0, 0, " +
+            "(SELECT min(id) FROM users), now() FROM generate_series(1, ?) g";
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private ApproximatePager approximatePager;
+    private GroupRepository groupRepository;
+    private Specification<GroupEntity> specification;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        context = new SpringApplicationBuilder(BenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--logging.level.root=WARN");
+        var jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update(OWNER_SQL);
+        jdbcTemplate.update(GROUPS_SQL, GROUPS);
+        jdbcTemplate.execute("ANALYZE groups");
+
+        approximatePager = context.getBean(ApproximatePager.class);
+        groupRepository = context.getBean(GroupRepository.class);
+        specification = (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("country"), "USA");
+        pageable = PageRequest.of(1, pageSize, Sort.by("id"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public Page<GroupLightDto> entityPage() {
+        return approximatePager.findPage(GroupEntity.class, groupRepository, specification, pageable,
+                CountCache.GROUPS, "benchmark", true).map(GroupMapper.INSTANCE::mapEntityToGroupLightDto);
+    }
+
+    @Benchmark
+    public Page<GroupLightDto> projectedPage() {
+        return approximatePager.findProjectedPage(GroupEntity.class, GroupLightDto.class, GroupService.LIGHT_COLUMNS,
+                groupRepository, specification, pageable, CountCache.GROUPS, "benchmark", true);
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = GroupEntity.class)
+    @EnableJpaRepositories(basePackageClasses = GroupRepository.class)
+    @Import({ApproximatePager.class, CountCache.class})
+    static class BenchmarkConfiguration {
+    }
+}
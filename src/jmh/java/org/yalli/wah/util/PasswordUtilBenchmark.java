@@ -0,0 +1,54 @@
+package org.yalli.wah.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class PasswordUtilBenchmark {
+    private static final String PASSWORD = "Benchmark1!";
+
+    @Param({"10", "12"})
+    private int strength;
+
+    private PasswordUtil passwordUtil;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        passwordUtil = new PasswordUtil(strength, 0, 1024, 60_000);
+        encodedPassword = passwordUtil.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordUtil.shutdown();
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordUtil.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return passwordUtil.matches(PASSWORD, encodedPassword);
+    }
+
+    @Benchmark
+    public boolean needsUpgrade() {
+        return passwordUtil.needsUpgrade(encodedPassword);
+    }
+}
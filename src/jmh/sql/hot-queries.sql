@@ -0,0 +1,36 @@
+\echo '--- login: users.email'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) SELECT * FROM users WHERE email = 'member4242@example.com';
+
+\echo '--- member search: confirmed + country + name prefix'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM users WHERE email_confirmed AND lower(country) LIKE 'germany' AND lower(full_name) LIKE 'member 42%'
+ORDER BY id LIMIT 20;
+
+\echo '--- events: UPCOMING in a country'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM events WHERE country = 'Germany' AND date >= current_date ORDER BY id LIMIT 20;
+
+\echo '--- events: title prefix'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) SELECT * FROM events WHERE title LIKE 'event 4242%' LIMIT 20;
+
+\echo '--- events: saved flags for one page'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT event_id FROM user_saved_events
+WHERE user_id = (SELECT min(id) + 42 FROM users) AND event_id IN (SELECT id FROM events ORDER BY id LIMIT 20);
+
+\echo '--- groups: category + country'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM groups WHERE category = 'SPORT' AND country = 'USA' ORDER BY id LIMIT 20;
+
+\echo '--- groups: by owner'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) SELECT * FROM groups WHERE user_id = (SELECT min(id) + 42 FROM users);
+
+\echo '--- mentors: accepted in a country'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM mentors WHERE mentor_status = 'ACCEPTED' AND country = 'Turkey' ORDER BY id LIMIT 20;
+
+\echo '--- mentors: leading-wildcard full name'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) SELECT * FROM mentors WHERE full_name LIKE '%a1b2%' LIMIT 20;
+
+\echo '--- mentor detail comments'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) SELECT * FROM comments WHERE mentors_id = (SELECT min(id) + 42 FROM mentors);
@@ -0,0 +1,56 @@
+-- Query plans for the hot list/lookup predicates, with and without the V3 indexes.
+-- Run against a migrated development database only:
+--   psql "$DB_URL" -f src/jmh/sql/hot-query-plans.sql > plans.txt
+-- Everything (seed rows and dropped indexes) is rolled back at the end.
+
+\set ON_ERROR_STOP on
+BEGIN;
+
+INSERT INTO users (full_name, email, password, country, email_confirmed, number_of_not_completed_fields, created_at)
+SELECT 'member ' || g, 'member' || g || '@example.com', 'x', (ARRAY ['Azerbaijan', 'Germany', 'USA', 'Turkey'])[1 + g % 4],
+       g % 10 <> 0, 0, now() - (g || ' minutes')::interval
+FROM generate_series(1, 200000) g;
+
+INSERT INTO events (title, country, description, date, is_popular, created_at)
+SELECT 'event ' || g, (ARRAY ['Azerbaijan', 'Germany', 'USA', 'Turkey'])[1 + g % 4], 'description ' || g,
+       current_date + (g % 720 - 360), g % 500 = 0, now() - (g || ' minutes')::interval
+FROM generate_series(1, 100000) g;
+
+INSERT INTO groups (title, country, category, user_id, rename_count, member_count, created_at)
+SELECT 'group ' || g, (ARRAY ['Azerbaijan', 'Germany', 'USA', 'Turkey'])[1 + g % 4],
+       (ARRAY ['EDUCATION', 'SPORT', 'ART'])[1 + g % 3], (SELECT min(id) FROM users) + g % 200000, 0, 0,
+       now() - (g || ' minutes')::interval
+FROM generate_series(1, 50000) g;
+
+INSERT INTO mentors (full_name, country, email, mentor_category, mentor_status, created_at)
+SELECT 'mentor ' || md5(g::text), (ARRAY ['Azerbaijan', 'Germany', 'USA', 'Turkey'])[1 + g % 4],
+       'mentor' || g || '@example.com', (ARRAY ['IT', 'BUSINESS', 'LAW'])[1 + g % 3],
+       CASE WHEN g % 5 = 0 THEN 'ON_HOLD' ELSE 'ACCEPTED' END, now() - (g || ' minutes')::interval
+FROM generate_series(1, 20000) g;
+
+INSERT INTO comments (content, rate, user_name, mentors_id, created_at)
+SELECT 'comment ' || g, 1 + g % 5, 'member', (SELECT min(id) FROM mentors) + g % 20000, now()
+FROM generate_series(1, 100000) g;
+
+INSERT INTO user_saved_events (user_id, event_id)
+SELECT (SELECT min(id) FROM users) + (g * 7919) % 200000, (SELECT min(id) FROM events) + (g * 104729) % 100000
+FROM generate_series(1, 300000) g
+ON CONFLICT DO NOTHING;
+
+ANALYZE users, events, groups, mentors, comments, user_saved_events;
+
+\echo '==================== WITH V3 INDEXES ===================='
+\ir hot-queries.sql
+
+DROP INDEX idx_users_email, idx_users_access_token, idx_users_confirmed_country_name, idx_users_confirmed_name,
+    idx_users_created_at_id, idx_events_date, idx_events_country_date, idx_events_title_prefix, idx_events_popular,
+    idx_events_created_at_id, idx_groups_category_country, idx_groups_country, idx_groups_title_prefix,
+    idx_groups_user_id, idx_groups_created_at_id, idx_mentors_accepted_country, idx_mentors_accepted_category,
+    idx_mentors_accepted_created_at_id, idx_mentors_full_name_trgm, idx_mentors_email, idx_comments_mentors_id,
+    idx_user_saved_events_event_id;
+ALTER TABLE user_saved_events DROP CONSTRAINT pk_user_saved_events;
+
+\echo '==================== WITHOUT V3 INDEXES (ddl-auto baseline) ===================='
+\ir hot-queries.sql
+
+ROLLBACK;
@@ -0,0 +1,54 @@
+-- Bytes read per page for the group/mentor/member list endpoints: full entity rows vs the
+-- columns the list DTOs need. Run against a migrated development database only:
+--   psql "$DB_URL" -f src/jmh/sql/list-projection-bytes.sql > projection.txt
+-- Seed rows are rolled back at the end.
+
+\set ON_ERROR_STOP on
+BEGIN;
+
+INSERT INTO users (full_name, email, password, country, email_confirmed, number_of_not_completed_fields, created_at,
+                   account_urls)
+SELECT 'member ' || g, 'member' || g || '@example.com', repeat('x', 60), (ARRAY ['Germany', 'USA'])[1 + g % 2],
+       true, 0, now(), '{"LINKEDIN": "https://linkedin.com/in/member"}'
+FROM generate_series(1, 20000) g;
+
+INSERT INTO groups (title, description, about, country, category, gallery, member_count, rename_count, user_id,
+                    created_at)
+SELECT 'group ' || g, repeat('d', 8000), repeat('a', 4000), (ARRAY ['Germany', 'USA'])[1 + g % 2], 'SPORT',
+       (SELECT jsonb_agg('gallery/image-' || i || '.png') FROM generate_series(1, 12) i), 0, 0,
+       (SELECT min(id) FROM users), now()
+FROM generate_series(1, 20000) g;
+
+INSERT INTO mentors (full_name, country, city, email, description, mentor_category, mentor_status, created_at)
+SELECT 'mentor ' || g, (ARRAY ['Germany', 'USA'])[1 + g % 2], 'Berlin', 'mentor' || g || '@example.com',
+       repeat('m', 3000), 'IT', 'ACCEPTED', now()
+FROM generate_series(1, 20000) g;
+
+ANALYZE users;
+ANALYZE groups;
+ANALYZE mentors;
+
+\echo '--- groups page: entity row vs GroupLightDto columns (bytes per page of 20)'
+SELECT sum(pg_column_size(g.*)) AS entity_bytes,
+       sum(pg_column_size(ROW (g.id, g.title, g.image_id, g.country, g.member_count, g.category))) AS projected_bytes
+FROM (SELECT * FROM groups WHERE country = 'USA' ORDER BY id LIMIT 20) g;
+
+\echo '--- mentors page: entity row vs MentorSearchDto columns'
+SELECT sum(pg_column_size(m.*)) AS entity_bytes,
+       sum(pg_column_size(ROW (m.id, m.full_name, m.country, m.mentor_category, m.profile_picture))) AS projected_bytes
+FROM (SELECT * FROM mentors WHERE mentor_status = 'ACCEPTED' ORDER BY id LIMIT 20) m;
+
+\echo '--- members page: entity row vs MemberDto columns'
+SELECT sum(pg_column_size(u.*)) AS entity_bytes,
+       sum(pg_column_size(ROW (u.full_name, u.country, u.profile_picture_url, u.account_urls))) AS projected_bytes
+FROM (SELECT * FROM users WHERE email_confirmed ORDER BY id LIMIT 20) u;
+
+\echo '--- buffers and wire bytes (SERIALIZE needs PostgreSQL 17+): full group rows, detoasting description/about/gallery'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SERIALIZE)
+SELECT * FROM groups WHERE country = 'USA' ORDER BY id LIMIT 20;
+
+\echo '--- buffers and wire bytes: projected group columns'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SERIALIZE)
+SELECT id, title, image_id, country, member_count, category FROM groups WHERE country = 'USA' ORDER BY id LIMIT 20;
+
+ROLLBACK;
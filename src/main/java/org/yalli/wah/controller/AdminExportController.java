@@ -0,0 +1,51 @@
+package org.yalli.wah.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.yalli.wah.model.enums.ExportFormat;
+import org.yalli.wah.model.enums.ExportType;
+import org.yalli.wah.model.exception.InvalidInputException;
+import org.yalli.wah.service.ExportService;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/v1/admin/exports")
+@RequiredArgsConstructor
+public class AdminExportController {
+    private final ExportService exportService;
+
+    @GetMapping("/{type}")
+    @Operation(summary = "stream a full export of events, groups, accepted mentors or confirmed users")
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                                        @PathVariable String type,
+                                                        @RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        exportService.checkExportKey(key);
+        var exportType = parse(ExportType.class, type, "INVALID_EXPORT_TYPE");
+        var exportFormat = parse(ExportFormat.class, format, "INVALID_EXPORT_FORMAT");
+        StreamingResponseBody body = outputStream -> exportService.export(exportType, exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" +
+                        exportType.name().toLowerCase(Locale.ROOT) + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, String error) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException(error);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.yalli.wah.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.yalli.wah.model.enums.MentorStatus;
+import org.yalli.wah.model.exception.InvalidInputException;
+import org.yalli.wah.service.AdminKeyService;
+import org.yalli.wah.service.MentorService;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/v1/admin/mentors")
+@RequiredArgsConstructor
+public class AdminMentorController {
+    private final AdminKeyService adminKeyService;
+    private final MentorService mentorService;
+
+    @PutMapping("/{id}/status")
+    @Operation(summary = "accept, cancel or hold a mentor application")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void updateStatus(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                             @PathVariable Long id,
+                             @RequestParam(name = "status") String status) {
+        adminKeyService.checkAdminKey(key);
+        mentorService.updateStatus(id, parseStatus(status));
+    }
+
+    private static MentorStatus parseStatus(String status) {
+        try {
+            return MentorStatus.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("INVALID_MENTOR_STATUS");
+        }
+    }
+}
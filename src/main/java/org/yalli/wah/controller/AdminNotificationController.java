@@ -0,0 +1,32 @@
+package org.yalli.wah.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.yalli.wah.model.dto.NotificationDto;
+import org.yalli.wah.model.dto.NotificationSendDto;
+import org.yalli.wah.service.AdminKeyService;
+import org.yalli.wah.service.NotificationService;
+
+@RestController
+@RequestMapping("/v1/admin/notifications")
+@RequiredArgsConstructor
+public class AdminNotificationController {
+    private final AdminKeyService adminKeyService;
+    private final NotificationService notificationService;
+
+    @PostMapping
+    @Operation(summary = "send a notification to all users, one country or a list of users")
+    @ResponseStatus(HttpStatus.CREATED)
+    public NotificationDto send(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                @RequestBody NotificationSendDto notificationSendDto) {
+        adminKeyService.checkAdminKey(key);
+        return notificationService.send(notificationSendDto);
+    }
+}
@@ -0,0 +1,25 @@
+package org.yalli.wah.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.yalli.wah.model.dto.DeletionJobDto;
+import org.yalli.wah.service.DeletionJobService;
+
+@RestController
+@RequestMapping("/v1/deletion-jobs")
+@RequiredArgsConstructor
+@CrossOrigin
+public class DeletionJobController {
+    private final DeletionJobService deletionJobService;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "progress of a user or group deletion")
+    public DeletionJobDto getJob(@PathVariable Long id) {
+        return deletionJobService.getJob(id);
+    }
+}
@@ -9,6 +9,8 @@ import org.yalli.wah.model.exception.InvalidInputException;
 import org.yalli.wah.model.exception.InvalidOtpException;
 import org.yalli.wah.model.exception.PermissionException;
 import org.yalli.wah.model.exception.ResourceNotFoundException;
+import org.yalli.wah.model.exception.ServiceBusyException;
+import org.yalli.wah.model.exception.TooManyRequestsException;
 
 @RestControllerAdvice
 public class ErrorHandler {
@@ -36,4 +38,16 @@ public class ErrorHandler {
     public ExceptionResponse handle(ResourceNotFoundException e) {
         return new ExceptionResponse(e.getMessage());
     }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ExceptionResponse handle(ServiceBusyException e) {
+        return new ExceptionResponse(e.getMessage());
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ExceptionResponse handle(TooManyRequestsException e) {
+        return new ExceptionResponse(e.getMessage());
+    }
 }
@@ -5,10 +5,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.*;
+import org.yalli.wah.model.dto.EventBulkSaveDto;
 import org.yalli.wah.model.dto.EventDetailDto;
 import org.yalli.wah.model.dto.EventDto;
 import org.yalli.wah.model.dto.EventSaveDto;
 import org.yalli.wah.model.dto.EventSearchRequest;
+import org.yalli.wah.model.dto.ScrollRequest;
+import org.yalli.wah.model.dto.SliceDto;
 import org.yalli.wah.service.EventService;
 
 
@@ -23,8 +26,17 @@ public class EventController {
     public Page<EventDto> getEvents(
             @RequestHeader(value = "token", required = false) String token,
             @ModelAttribute EventSearchRequest searchRequest,
+            @RequestParam(name = "approximateTotal", defaultValue = "false") boolean approximateTotal,
             Pageable pageable) {
-        return eventService.getAllEvents(searchRequest, pageable, token);
+        return eventService.getAllEvents(searchRequest, pageable, token, approximateTotal);
+    }
+
+    @GetMapping("/scroll")
+    public SliceDto<EventDto> scrollEvents(
+            @RequestHeader(value = "token", required = false) String token,
+            @ModelAttribute EventSearchRequest searchRequest,
+            @ModelAttribute ScrollRequest scrollRequest) {
+        return eventService.scrollEvents(searchRequest, scrollRequest, token);
     }
 
     @GetMapping("/{id}")
@@ -42,6 +54,11 @@ public class EventController {
         eventService.unsaveEvent(eventSaveDto);
     }
 
+    @PatchMapping("/saved")
+    public void saveEvents(@RequestBody EventBulkSaveDto eventBulkSaveDto) {
+        eventService.saveEvents(eventBulkSaveDto);
+    }
+
     @PostMapping
     public void addEvent(EventDetailDto eventDetailDto) {
         eventService.addEvent(eventDetailDto);
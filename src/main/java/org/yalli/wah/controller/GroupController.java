@@ -3,6 +3,7 @@ package org.yalli.wah.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,12 +14,17 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.yalli.wah.model.dto.DeletionJobDto;
+import org.yalli.wah.model.dto.GalleryImagesDto;
 import org.yalli.wah.model.dto.GroupDto;
 import org.yalli.wah.model.dto.GroupLightDto;
 import org.yalli.wah.model.dto.GroupRequest;
 import org.yalli.wah.model.dto.GroupSearchRequest;
 import org.yalli.wah.model.dto.GroupUpdateDto;
+import org.yalli.wah.model.dto.ScrollRequest;
+import org.yalli.wah.model.dto.SliceDto;
 import org.yalli.wah.service.GroupService;
 
 import java.util.List;
@@ -33,8 +39,16 @@ public class GroupController {
 
     @GetMapping
     public Page<GroupLightDto> getAllGroupsLight(Pageable pageable,
-                                                 @ModelAttribute GroupSearchRequest filter) {
-        return groupService.getAllGroupsLight(pageable, filter);
+                                                 @ModelAttribute GroupSearchRequest filter,
+                                                 @RequestParam(name = "approximateTotal", defaultValue = "false")
+                                                 boolean approximateTotal) {
+        return groupService.getAllGroupsLight(pageable, filter, approximateTotal);
+    }
+
+    @GetMapping("/scroll")
+    public SliceDto<GroupLightDto> scrollGroupsLight(@ModelAttribute ScrollRequest scrollRequest,
+                                                     @ModelAttribute GroupSearchRequest filter) {
+        return groupService.scrollGroupsLight(scrollRequest, filter);
     }
 
     @GetMapping("/{id}")
@@ -52,6 +66,12 @@ public class GroupController {
         return groupService.getGroupsByUserId(userId, pageable);
     }
 
+    @GetMapping("/users/{userId}/scroll")
+    public SliceDto<GroupLightDto> scrollGroupsByUserId(@PathVariable Long userId,
+                                                        @ModelAttribute ScrollRequest scrollRequest) {
+        return groupService.scrollGroupsByUserId(userId, scrollRequest);
+    }
+
     @GetMapping("{groupId}/users/{userId}")
     public GroupDto getGroupDtoByUserId(@PathVariable Long groupId, @PathVariable Long userId) {
         return groupService.getGroupByUserId(groupId, userId);
@@ -62,8 +82,50 @@ public class GroupController {
         groupService.updateGroup(id, groupUpdateDto);
     }
 
+    @PostMapping("/{id}/gallery")
+    public void addGalleryImages(@PathVariable Long id, @RequestBody GalleryImagesDto galleryImagesDto) {
+        groupService.addGalleryImages(id, galleryImagesDto);
+    }
+
+    @DeleteMapping("/{id}/gallery")
+    public void removeGalleryImage(@PathVariable Long id, @RequestParam String image) {
+        groupService.removeGalleryImage(id, image);
+    }
+
+    @PutMapping("/{id}/gallery/order")
+    public void reorderGallery(@PathVariable Long id, @RequestBody GalleryImagesDto galleryImagesDto) {
+        groupService.reorderGallery(id, galleryImagesDto);
+    }
+
+    @PostMapping("/{id}/members/{userId}")
+    public void joinGroup(@PathVariable Long id, @PathVariable Long userId) {
+        groupService.joinGroup(id, userId);
+    }
+
+    @DeleteMapping("/{id}/members/{userId}")
+    public void leaveGroup(@PathVariable Long id, @PathVariable Long userId) {
+        groupService.leaveGroup(id, userId);
+    }
+
+    @GetMapping("/{id}/members/{userId}")
+    public boolean isMember(@PathVariable Long id, @PathVariable Long userId) {
+        return groupService.isMember(id, userId);
+    }
+
+    @GetMapping("/members/{userId}")
+    public Page<GroupLightDto> getJoinedGroups(@PathVariable Long userId, Pageable pageable) {
+        return groupService.getJoinedGroups(userId, pageable);
+    }
+
+    @GetMapping("/mutual")
+    public Page<GroupLightDto> getMutualGroups(@RequestParam Long userId, @RequestParam Long otherUserId,
+                                               Pageable pageable) {
+        return groupService.getMutualGroups(userId, otherUserId, pageable);
+    }
+
     @DeleteMapping("/users/{userId}")
-    public void deleteGroup(@PathVariable Long userId, @RequestParam List<Long> groupIds) {
-        groupService.deleteGroup(groupIds, userId);
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public DeletionJobDto deleteGroup(@PathVariable Long userId, @RequestParam List<Long> groupIds) {
+        return groupService.deleteGroup(groupIds, userId);
     }
 }
@@ -7,9 +7,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.yalli.wah.model.dto.CommentDto;
 import org.yalli.wah.model.dto.MentorDetailDto;
 import org.yalli.wah.model.dto.MentorSearchRequest;
 import org.yalli.wah.model.dto.MentorSearchDto;
+import org.yalli.wah.model.dto.ScrollRequest;
+import org.yalli.wah.model.dto.SliceDto;
 import org.yalli.wah.service.MentorService;
 
 
@@ -23,8 +26,19 @@ public class MentorController {
     @GetMapping("/search")
     @Operation(summary = "search mentors")
     @ResponseStatus(HttpStatus.OK)
-    public Page<MentorSearchDto> search(@ModelAttribute MentorSearchRequest mentorSearchRequest, Pageable pageable) {
-        return mentorService.searchMentors(mentorSearchRequest, pageable);
+    public Page<MentorSearchDto> search(@ModelAttribute MentorSearchRequest mentorSearchRequest,
+                                        @RequestParam(name = "approximateTotal", defaultValue = "false")
+                                        boolean approximateTotal,
+                                        Pageable pageable) {
+        return mentorService.searchMentors(mentorSearchRequest, pageable, approximateTotal);
+    }
+
+    @GetMapping("/search/scroll")
+    @Operation(summary = "search mentors with a continuation cursor")
+    @ResponseStatus(HttpStatus.OK)
+    public SliceDto<MentorSearchDto> scroll(@ModelAttribute MentorSearchRequest mentorSearchRequest,
+                                            @ModelAttribute ScrollRequest scrollRequest) {
+        return mentorService.scrollMentors(mentorSearchRequest, scrollRequest);
     }
 
     @GetMapping("/{id}")
@@ -34,6 +48,15 @@ public class MentorController {
         return mentorService.getMentorById(id);
     }
 
+    @GetMapping("/{id}/comments")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "mentor comments, newest first, with a continuation cursor")
+    public SliceDto<CommentDto> getComments(@PathVariable Long id,
+                                            @RequestParam(name = "cursor", required = false) String cursor,
+                                            @RequestParam(name = "size", required = false) Integer size) {
+        return mentorService.getComments(id, cursor, size);
+    }
+
 
 }
 
@@ -1,12 +1,13 @@
 package org.yalli.wah.controller;
 
+import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.yalli.wah.model.dto.NotificationDto;
+import org.yalli.wah.model.dto.SliceDto;
 import org.yalli.wah.service.NotificationService;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("v1/notifications")
 @CrossOrigin
@@ -15,12 +16,25 @@ public class NotificationController {
 
     private final NotificationService notificationService;
 
+    @GetMapping
+    @Operation(summary = "broadcast, country and direct notifications of a user, newest first")
+    public SliceDto<NotificationDto> getInbox(@RequestParam Long userId,
+                                              @RequestParam(name = "cursor", required = false) String cursor,
+                                              @RequestParam(name = "size", required = false) Integer size) {
+        return notificationService.getInbox(userId, cursor, size);
+    }
 
+    @GetMapping("/unread-count")
+    @Operation(summary = "number of unread notifications, capped at 99")
+    public long getUnreadCount(@RequestParam Long userId) {
+        return notificationService.getUnreadCount(userId);
+    }
 
-    @GetMapping("/getAll")
-    public List<NotificationDto> getAll(@RequestParam Long userId,
-                                        @RequestParam String country){
-        return notificationService.getAll(userId, country);
+    @PutMapping("/read")
+    @Operation(summary = "mark every notification up to lastReadId as read")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void markRead(@RequestParam Long userId, @RequestParam Long lastReadId) {
+        notificationService.markRead(userId, lastReadId);
     }
 
 }
@@ -0,0 +1,30 @@
+package org.yalli.wah.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.yalli.wah.model.dto.SearchResponseDto;
+import org.yalli.wah.model.enums.SearchDocumentType;
+import org.yalli.wah.service.SearchIndexService;
+
+@RestController
+@RequestMapping("/v1/search")
+@RequiredArgsConstructor
+@CrossOrigin
+public class SearchController {
+    private final SearchIndexService searchIndexService;
+
+    @GetMapping
+    @Operation(summary = "ranked full-text search over events, groups and mentors")
+    public SearchResponseDto search(@RequestParam(name = "q") String query,
+                                    @RequestParam(name = "type", required = false) SearchDocumentType type,
+                                    @RequestParam(name = "country", required = false) String country,
+                                    @RequestParam(name = "page", defaultValue = "0") int page,
+                                    @RequestParam(name = "size", defaultValue = "20") int size) {
+        return searchIndexService.search(query, type, country, page, size);
+    }
+}
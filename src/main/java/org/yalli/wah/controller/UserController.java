@@ -9,11 +9,13 @@ import org.springframework.web.bind.annotation.*;
 
 import org.yalli.wah.model.dto.*;
 import org.yalli.wah.model.enums.Country;
+import org.yalli.wah.model.enums.SocialMedia;
 import org.yalli.wah.service.UserService;
 
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -52,6 +54,13 @@ public class UserController {
         return userService.refreshToken(accessToken);
     }
 
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "revoke access token")
+    public void logout(@RequestHeader(value = "access-token") String accessToken) {
+        userService.logout(accessToken);
+    }
+
     @PostMapping("/confirm")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(summary = "confirming mail with otp verification")
@@ -86,12 +95,23 @@ public class UserController {
     public Page<MemberDto> searchUsers(
             @RequestParam(name = "fullName", required = false) String fullName,
             @RequestParam(name = "country", required = false) String country,
+            @RequestParam(name = "approximateTotal", defaultValue = "false") boolean approximateTotal,
             Pageable pageable
     ) {
-        return userService.searchUsers(fullName, country, pageable);
+        return userService.searchUsers(fullName, country, pageable, approximateTotal);
     }
 
 
+    @GetMapping("/search/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    public SliceDto<MemberDto> scrollUsers(
+            @RequestParam(name = "fullName", required = false) String fullName,
+            @RequestParam(name = "country", required = false) String country,
+            @ModelAttribute ScrollRequest scrollRequest
+    ) {
+        return userService.scrollUsers(fullName, country, scrollRequest);
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public MemberInfoDto getUser(@PathVariable Long id) {
@@ -104,6 +124,18 @@ public class UserController {
         userService.updateUser(memberUpdateDto, id);
     }
 
+    @PatchMapping("/{id}/social-media")
+    @ResponseStatus(HttpStatus.OK)
+    public void updateSocialMediaAccounts(@PathVariable Long id, @RequestBody Map<SocialMedia, String> accounts) {
+        userService.updateSocialMediaAccounts(id, accounts);
+    }
+
+    @DeleteMapping("/{id}/social-media/{platform}")
+    @ResponseStatus(HttpStatus.OK)
+    public void removeSocialMediaAccount(@PathVariable Long id, @PathVariable SocialMedia platform) {
+        userService.removeSocialMediaAccount(id, platform);
+    }
+
     @GetMapping("/send-otp")
     public void sendOtp(String email) {
         userService.sendOtp(email);
@@ -111,9 +143,9 @@ public class UserController {
 
     @DeleteMapping("/delete/{id}")
     @Operation(summary = "Delete user")
-    @ResponseStatus(HttpStatus.OK)
-    public void deleteUser(@PathVariable Long id){
-        userService.deleteUser(id);
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public DeletionJobDto deleteUser(@PathVariable Long id){
+        return userService.deleteUser(id);
     }
 
     @PostMapping("/register/resend-otp")
@@ -25,5 +25,6 @@ public class CommentEntity {
     @JoinColumn(name = "mentors_id")
     private MentorEntity mentor;
     @CreationTimestamp
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 }
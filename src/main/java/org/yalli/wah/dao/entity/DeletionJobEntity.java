@@ -0,0 +1,46 @@
+package org.yalli.wah.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.yalli.wah.model.enums.DeletionJobStatus;
+import org.yalli.wah.model.enums.DeletionTarget;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Entity
+@Table(name = "deletion_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletionJobEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    private DeletionTarget target;
+    private Long userId;
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private List<Long> groupIds;
+    @Enumerated(EnumType.STRING)
+    private DeletionJobStatus status = DeletionJobStatus.PENDING;
+    @Column(updatable = false)
+    private Long deletedRows = 0L;
+    @Column(updatable = false)
+    private Integer deletedObjects = 0;
+    private Integer failedObjects = 0;
+    private Integer attempts = 0;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime claimedAt;
+    @Column(length = 1000)
+    private String lastError;
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
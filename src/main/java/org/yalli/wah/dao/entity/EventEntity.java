@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = @Index(name = "idx_events_popularity_score", columnList = "popularity_score"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
@@ -28,6 +29,15 @@ public class EventEntity {
     private String imageId;
     private LocalDate date;
     private Boolean isPopular;
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long viewCount;
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long saveCount;
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private double popularityScore;
     private String link;
     @ManyToMany(mappedBy = "savedEvents")
     private List<UserEntity> users;
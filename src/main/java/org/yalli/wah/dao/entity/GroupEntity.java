@@ -27,12 +27,14 @@ public class GroupEntity {
     private String about;
     private String imageId;
     private String country;
+    @Column(updatable = false)
     private Short renameCount;
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb")
     private List<String> gallery;
+    @Column(updatable = false)
     private Long memberCount;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
@@ -0,0 +1,20 @@
+package org.yalli.wah.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "group_members")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMemberEntity {
+    @EmbeddedId
+    private GroupMemberId id;
+    @Column(nullable = false)
+    private LocalDateTime joinedAt;
+}
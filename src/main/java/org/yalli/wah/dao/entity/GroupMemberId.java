@@ -0,0 +1,17 @@
+package org.yalli.wah.dao.entity;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMemberId implements Serializable {
+    private Long groupId;
+    private Long userId;
+}
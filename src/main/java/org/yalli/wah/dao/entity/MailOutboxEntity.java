@@ -0,0 +1,36 @@
+package org.yalli.wah.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.yalli.wah.model.enums.MailStatus;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "mail_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailOutboxEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String recipient;
+    private String subject;
+    @Column(columnDefinition = "TEXT")
+    private String body;
+    @Enumerated(EnumType.STRING)
+    private MailStatus status = MailStatus.PENDING;
+    private Integer attempts = 0;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime claimedAt;
+    private LocalDateTime attemptingAt;
+    private LocalDateTime sentAt;
+    @Column(length = 1000)
+    private String lastError;
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -7,7 +7,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 import org.yalli.wah.model.enums.MentorCategory;
 import org.yalli.wah.model.enums.MentorStatus;
 
@@ -41,4 +43,13 @@ public class MentorEntity {
     private String link;
     @Enumerated(EnumType.STRING)
     private MentorStatus mentorStatus = MentorStatus.ON_HOLD;
+    @Column(nullable = false, updatable = false)
+    private Long ratingSum = 0L;
+    @Column(nullable = false, updatable = false)
+    private Integer ratingCount = 0;
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false, updatable = false, columnDefinition = "integer[]")
+    private Integer[] ratingHistogram = {0, 0, 0, 0, 0};
+    @Column(insertable = false, updatable = false)
+    private Double ratingAverage;
 }
\ No newline at end of file
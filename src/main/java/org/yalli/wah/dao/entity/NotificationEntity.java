@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.yalli.wah.model.enums.NotificationTarget;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,4 +26,7 @@ public class NotificationEntity {
     @ManyToMany(mappedBy="notifications")
     private List<UserEntity> users;
     private Boolean forAllUsers=false;
+    @Enumerated(EnumType.STRING)
+    private NotificationTarget target = NotificationTarget.USERS;
+    private String targetCountry;
 }
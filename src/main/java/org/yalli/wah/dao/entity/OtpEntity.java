@@ -0,0 +1,29 @@
+package org.yalli.wah.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.yalli.wah.model.enums.OtpPurpose;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "otps", uniqueConstraints = @UniqueConstraint(columnNames = {"email", "purpose"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OtpEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String email;
+    @Enumerated(EnumType.STRING)
+    private OtpPurpose purpose;
+    private String code;
+    private LocalDateTime expiresAt;
+    private int attempts;
+    private boolean verified;
+    private LocalDateTime windowStartedAt;
+    private int issuedInWindow;
+}
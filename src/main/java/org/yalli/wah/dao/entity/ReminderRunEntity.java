@@ -0,0 +1,32 @@
+package org.yalli.wah.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.yalli.wah.model.enums.ReminderRunStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reminder_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderRunEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false)
+    private LocalDate runDate;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReminderRunStatus status;
+    @Column(nullable = false)
+    private long lastUserId;
+    @Column(nullable = false)
+    private long lastEventId;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,32 @@
+package org.yalli.wah.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.yalli.wah.model.enums.SearchDocumentType;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "search_documents",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"doc_type", "doc_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchDocumentEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "doc_type", length = 16)
+    private SearchDocumentType docType;
+    @Column(name = "doc_id")
+    private Long docId;
+    private String title;
+    @Column(columnDefinition = "TEXT")
+    private String body;
+    private String country;
+    private boolean visible;
+    private LocalDateTime updatedAt;
+}
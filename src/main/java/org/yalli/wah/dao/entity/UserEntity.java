@@ -47,10 +47,6 @@ public class UserEntity {
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "account_urls")
     private HashMap<SocialMedia, String> socialMediaAccounts;
-    private String otp;
-    private LocalDateTime otpExpiration;
-    @Column(nullable = false, columnDefinition = "boolean default false")
-    private boolean otpVerified;
     @Column(nullable = false, columnDefinition = "boolean default false")
     private boolean emailConfirmed = false;
     @Column(name = "number_of_not_completed_fields")
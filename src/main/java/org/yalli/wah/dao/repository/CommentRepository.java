@@ -1,12 +1,28 @@
 package org.yalli.wah.dao.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.yalli.wah.dao.entity.CommentEntity;
+import org.yalli.wah.model.dto.CommentDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
-    List<CommentEntity> findAllByMentorId(Long mentorId);
+    @Query("SELECT new org.yalli.wah.model.dto.CommentDto(c.id, c.content, c.rate, c.userName, c.createdAt) " +
+            "FROM CommentEntity c WHERE c.mentor.id = :mentorId ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentDto> findLatestByMentorId(@Param("mentorId") Long mentorId, Pageable pageable);
+
+    @Query("SELECT new org.yalli.wah.model.dto.CommentDto(c.id, c.content, c.rate, c.userName, c.createdAt) " +
+            "FROM CommentEntity c WHERE c.mentor.id = :mentorId " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentDto> findByMentorIdBefore(@Param("mentorId") Long mentorId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
 }
@@ -0,0 +1,33 @@
+package org.yalli.wah.dao.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import org.yalli.wah.dao.entity.DeletionJobEntity;
+import org.yalli.wah.model.enums.DeletionJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DeletionJobRepository extends JpaRepository<DeletionJobEntity, Long> {
+    @Query("SELECT j.id FROM DeletionJobEntity j WHERE j.status = :status " +
+            "AND (j.nextAttemptAt IS NULL OR j.nextAttemptAt <= :now) ORDER BY j.id")
+    List<Long> findDueIds(@Param("status") DeletionJobStatus status, @Param("now") LocalDateTime now,
+                          Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE DeletionJobEntity j SET j.status = :claimed, j.claimedAt = :now " +
+            "WHERE j.id = :id AND j.status = :pending")
+    int claim(@Param("id") Long id, @Param("pending") DeletionJobStatus pending,
+              @Param("claimed") DeletionJobStatus claimed, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE DeletionJobEntity j SET j.status = :pending WHERE j.status = :claimed AND j.claimedAt < :before")
+    int releaseStaleClaims(@Param("claimed") DeletionJobStatus claimed, @Param("pending") DeletionJobStatus pending,
+                           @Param("before") LocalDateTime before);
+}
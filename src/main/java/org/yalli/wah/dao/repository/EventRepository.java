@@ -1,11 +1,44 @@
 package org.yalli.wah.dao.repository;
 
-
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.yalli.wah.dao.entity.EventEntity;
+import org.yalli.wah.model.dto.EventExportRow;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface EventRepository extends JpaRepository<EventEntity, Long>, JpaSpecificationExecutor<EventEntity> {
-//    @Query("SELECT u from EventEntity e JOIN e.users users WHERE e.id= :userId AND coupon.id= :couponId")
-//    List<EventEntity> findEvents;
+    @Query(value = "SELECT event_id FROM user_saved_events WHERE user_id = :userId AND event_id IN (:eventIds)",
+            nativeQuery = true)
+    List<Long> findSavedEventIds(@Param("userId") Long userId, @Param("eventIds") Collection<Long> eventIds);
+
+    @Query(value = "INSERT INTO user_saved_events (user_id, event_id) " +
+            "SELECT :userId, e.id FROM events e WHERE e.id IN (:eventIds) " +
+            "AND NOT EXISTS (SELECT 1 FROM user_saved_events s WHERE s.user_id = :userId AND s.event_id = e.id) " +
+            "RETURNING event_id",
+            nativeQuery = true)
+    List<Long> insertSavedEvents(@Param("userId") Long userId, @Param("eventIds") Collection<Long> eventIds);
+
+    @Query("SELECT e.id FROM EventEntity e WHERE e.popularityScore > 0 ORDER BY e.popularityScore DESC")
+    List<Long> findTopPopularIds(Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new org.yalli.wah.model.dto.EventExportRow(e.id, e.title, e.country, e.city, e.date, " +
+            "e.isPopular, e.viewCount, e.saveCount, e.link, e.createdAt) FROM EventEntity e ORDER BY e.id")
+    Stream<EventExportRow> streamExportRows();
+
+    @Modifying
+    @Query(value = "DELETE FROM user_saved_events WHERE user_id = :userId AND event_id IN (:eventIds)",
+            nativeQuery = true)
+    int deleteSavedEvents(@Param("userId") Long userId, @Param("eventIds") Collection<Long> eventIds);
 }
@@ -0,0 +1,38 @@
+package org.yalli.wah.dao.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.yalli.wah.dao.entity.GroupMemberEntity;
+import org.yalli.wah.dao.entity.GroupMemberId;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface GroupMemberRepository extends JpaRepository<GroupMemberEntity, GroupMemberId> {
+    @Modifying
+    @Query(value = "INSERT INTO group_members (group_id, user_id, joined_at) VALUES (:groupId, :userId, now()) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM group_members WHERE group_id = :groupId AND user_id = :userId", nativeQuery = true)
+    int deleteMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    @Query("SELECT m.id.groupId FROM GroupMemberEntity m WHERE m.id.userId = :userId ORDER BY m.id.groupId")
+    List<Long> findGroupIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT m.id.groupId FROM GroupMemberEntity m WHERE m.id.userId = :userId " +
+            "AND m.id.groupId IN (SELECT o.id.groupId FROM GroupMemberEntity o WHERE o.id.userId = :otherUserId) " +
+            "ORDER BY m.id.groupId")
+    List<Long> findMutualGroupIds(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT m.id FROM GroupMemberEntity m")
+    Stream<GroupMemberId> streamAllIds();
+}
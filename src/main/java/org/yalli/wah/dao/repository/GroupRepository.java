@@ -1,17 +1,73 @@
 package org.yalli.wah.dao.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.yalli.wah.dao.entity.GroupEntity;
+import org.yalli.wah.model.dto.GroupExportRow;
+import org.yalli.wah.model.dto.GroupLightDto;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface GroupRepository extends JpaRepository<GroupEntity, Long>, JpaSpecificationExecutor<GroupEntity> {
-    Page<GroupEntity> findByUserEntity_Id(Long id, Pageable pageable);
+    @Query(value = "SELECT new org.yalli.wah.model.dto.GroupLightDto(g.id, g.title, g.imageId, g.country, " +
+            "g.memberCount, g.category) FROM GroupEntity g WHERE g.userEntity.id = :userId",
+            countQuery = "SELECT count(g) FROM GroupEntity g WHERE g.userEntity.id = :userId")
+    Page<GroupLightDto> findLightByUserId(@Param("userId") Long userId, Pageable pageable);
+
     Optional<GroupEntity> findByIdAndUserEntity_Id(Long id, Long id1);
-    long deleteByUserEntity_IdAndIdIn(Long id, Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE groups SET gallery = COALESCE(gallery, CAST('[]' AS jsonb)) || " +
+            "(SELECT COALESCE(jsonb_agg(image), CAST('[]' AS jsonb)) FROM jsonb_array_elements(CAST(:images AS jsonb)) image " +
+            "WHERE NOT COALESCE(gallery, CAST('[]' AS jsonb)) @> jsonb_build_array(image)), updated_at = now() " +
+            "WHERE id = :id", nativeQuery = true)
+    int appendGalleryImages(@Param("id") Long id, @Param("images") String images);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE groups SET gallery = gallery - CAST(:image AS text), updated_at = now() " +
+            "WHERE id = :id AND gallery IS NOT NULL", nativeQuery = true)
+    int removeGalleryImage(@Param("id") Long id, @Param("image") String image);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE groups SET gallery = CAST(:images AS jsonb), updated_at = now() " +
+            "WHERE id = :id AND jsonb_array_length(COALESCE(gallery, CAST('[]' AS jsonb))) = " +
+            "jsonb_array_length(CAST(:images AS jsonb)) " +
+            "AND COALESCE(gallery, CAST('[]' AS jsonb)) @> CAST(:images AS jsonb) " +
+            "AND CAST(:images AS jsonb) @> COALESCE(gallery, CAST('[]' AS jsonb))", nativeQuery = true)
+    int reorderGallery(@Param("id") Long id, @Param("images") String images);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new org.yalli.wah.model.dto.GroupExportRow(g.id, g.title, g.country, g.category, " +
+            "g.memberCount, u.id, g.link, g.createdAt) FROM GroupEntity g LEFT JOIN g.userEntity u ORDER BY g.id")
+    Stream<GroupExportRow> streamExportRows();
+
+    @Modifying
+    @Query(value = "UPDATE groups SET member_count = GREATEST(member_count + :delta, 0) WHERE id = :id",
+            nativeQuery = true)
+    int incrementMemberCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "UPDATE groups SET rename_count = rename_count + 1 WHERE id = :id AND rename_count < :limit",
+            nativeQuery = true)
+    int incrementRenameCount(@Param("id") Long id, @Param("limit") int limit);
+
+    @Query("SELECT new org.yalli.wah.model.dto.GroupLightDto(g.id, g.title, g.imageId, g.country, g.memberCount, " +
+            "g.category) FROM GroupEntity g WHERE g.id IN :ids ORDER BY g.id")
+    List<GroupLightDto> findLightByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,44 @@
+package org.yalli.wah.dao.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import org.yalli.wah.dao.entity.MailOutboxEntity;
+import org.yalli.wah.model.enums.MailStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutboxEntity, Long> {
+    @Query("SELECT m.id FROM MailOutboxEntity m WHERE m.status = :status AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<Long> findDueIds(@Param("status") MailStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE MailOutboxEntity m SET m.status = :claimed, m.claimedAt = :now " +
+            "WHERE m.id = :id AND m.status = :pending")
+    int claim(@Param("id") Long id, @Param("pending") MailStatus pending, @Param("claimed") MailStatus claimed,
+              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE MailOutboxEntity m SET m.attemptingAt = :now WHERE m.id = :id AND m.status = :claimed")
+    int markAttempting(@Param("id") Long id, @Param("claimed") MailStatus claimed, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE MailOutboxEntity m SET m.status = :sent, m.sentAt = :now, m.lastError = null " +
+            "WHERE m.id = :id AND m.status = :claimed")
+    int markSent(@Param("id") Long id, @Param("claimed") MailStatus claimed, @Param("sent") MailStatus sent,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE MailOutboxEntity m SET m.status = :pending WHERE m.status = :claimed AND m.claimedAt < :before " +
+            "AND m.attemptingAt IS NULL")
+    int releaseStaleClaims(@Param("claimed") MailStatus claimed, @Param("pending") MailStatus pending,
+                           @Param("before") LocalDateTime before);
+}
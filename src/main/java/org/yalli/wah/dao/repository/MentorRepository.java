@@ -1,15 +1,46 @@
 package org.yalli.wah.dao.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.yalli.wah.dao.entity.MentorEntity;
+import org.yalli.wah.model.dto.MentorExportRow;
+import org.yalli.wah.model.dto.MentorIndexRow;
 import org.yalli.wah.model.enums.MentorStatus;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface MentorRepository extends JpaRepository<MentorEntity, Long>, JpaSpecificationExecutor<MentorEntity> {
 
     Optional<MentorEntity> findByEmail(String email);
+
+    @Query("SELECT new org.yalli.wah.model.dto.MentorIndexRow(m.id, m.fullName, m.country, m.mentorCategory, " +
+            "m.profilePicture, m.ratingAverage, m.ratingCount, m.createdAt, m.mentorStatus) " +
+            "FROM MentorEntity m WHERE m.mentorStatus = :status ORDER BY m.id")
+    List<MentorIndexRow> findIndexRows(@Param("status") MentorStatus status);
+
+    @Query("SELECT new org.yalli.wah.model.dto.MentorIndexRow(m.id, m.fullName, m.country, m.mentorCategory, " +
+            "m.profilePicture, m.ratingAverage, m.ratingCount, m.createdAt, m.mentorStatus) " +
+            "FROM MentorEntity m WHERE m.id = :id")
+    Optional<MentorIndexRow> findIndexRow(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "UPDATE mentors SET rating_sum = rating_sum + :rate, rating_count = rating_count + 1, " +
+            "rating_histogram[:rate] = rating_histogram[:rate] + 1 WHERE id = :id", nativeQuery = true)
+    int addRating(@Param("id") Long id, @Param("rate") int rate);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new org.yalli.wah.model.dto.MentorExportRow(m.id, m.fullName, m.country, m.city, m.email, " +
+            "m.mentorCategory, m.link, m.createdAt) FROM MentorEntity m WHERE m.mentorStatus = :status ORDER BY m.id")
+    Stream<MentorExportRow> streamExportRows(@Param("status") MentorStatus status);
 }
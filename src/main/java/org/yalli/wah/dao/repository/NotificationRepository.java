@@ -1,16 +1,29 @@
 package org.yalli.wah.dao.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.yalli.wah.dao.entity.NotificationEntity;
-import org.yalli.wah.dao.entity.UserEntity;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.Collection;
 
 public interface NotificationRepository extends JpaRepository<NotificationEntity,Long> {
-    @Query("SELECT n FROM NotificationEntity n JOIN n.users u WHERE u.id = :userId AND u.country = :country AND n.forAllUsers = :forAllUsers")
-    Optional<List<NotificationEntity>> findNotificationsForUser(@Param("userId") Long userId, @Param("forAllUsers") Boolean forAllUsers, @Param("country") String country);
+    @Modifying
+    @Query(value = "INSERT INTO user_notifications (user_id, notifications_id) " +
+            "SELECT u.id, :notificationId FROM users u WHERE u.id IN (:userIds) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int addRecipients(@Param("notificationId") Long notificationId, @Param("userIds") Collection<Long> userIds);
 
+    @Modifying
+    @Query(value = "INSERT INTO notification_reads (user_id, last_read_id, read_at) " +
+            "VALUES (:userId, LEAST(:lastReadId, (SELECT COALESCE(MAX(id), 0) FROM notifications)), now()) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "last_read_id = GREATEST(notification_reads.last_read_id, EXCLUDED.last_read_id), read_at = now()",
+            nativeQuery = true)
+    int markRead(@Param("userId") Long userId, @Param("lastReadId") Long lastReadId);
+
+    @Query(value = "SELECT COALESCE(MAX(last_read_id), 0) FROM notification_reads WHERE user_id = :userId",
+            nativeQuery = true)
+    long findLastReadId(@Param("userId") Long userId);
 }
@@ -0,0 +1,60 @@
+package org.yalli.wah.dao.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import org.yalli.wah.dao.entity.OtpEntity;
+import org.yalli.wah.model.enums.OtpPurpose;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OtpRepository extends JpaRepository<OtpEntity, Long> {
+    Optional<OtpEntity> findByEmailAndPurpose(String email, OtpPurpose purpose);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO otps (email, purpose, code, expires_at, attempts, verified, window_started_at, " +
+            "issued_in_window) VALUES (:email, :purpose, :code, :expiresAt, 0, false, :now, 1) " +
+            "ON CONFLICT (email, purpose) DO UPDATE SET code = EXCLUDED.code, expires_at = EXCLUDED.expires_at, " +
+            "attempts = 0, verified = false, " +
+            "window_started_at = CASE WHEN otps.window_started_at IS NULL OR otps.window_started_at < :windowStart " +
+            "THEN :now ELSE otps.window_started_at END, " +
+            "issued_in_window = CASE WHEN otps.window_started_at IS NULL OR otps.window_started_at < :windowStart " +
+            "THEN 1 ELSE otps.issued_in_window + 1 END " +
+            "WHERE otps.window_started_at IS NULL OR otps.window_started_at < :windowStart " +
+            "OR otps.issued_in_window < :maxIssues", nativeQuery = true)
+    int issue(@Param("email") String email, @Param("purpose") String purpose, @Param("code") String code,
+              @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now,
+              @Param("windowStart") LocalDateTime windowStart, @Param("maxIssues") int maxIssues);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE otps SET verified = true, " +
+            "expires_at = CASE WHEN verified THEN expires_at ELSE :verifiedUntil END " +
+            "WHERE email = :email AND purpose = :purpose AND code = :code AND expires_at > :now", nativeQuery = true)
+    int markVerified(@Param("email") String email, @Param("purpose") String purpose, @Param("code") String code,
+                     @Param("now") LocalDateTime now, @Param("verifiedUntil") LocalDateTime verifiedUntil);
+
+    @Transactional
+    @Query(value = "UPDATE otps SET attempts = attempts + 1, " +
+            "code = CASE WHEN attempts + 1 >= :maxAttempts THEN NULL ELSE code END " +
+            "WHERE email = :email AND purpose = :purpose AND code IS NOT NULL AND code <> :code " +
+            "AND expires_at > :now RETURNING attempts", nativeQuery = true)
+    List<Integer> recordFailedAttempt(@Param("email") String email, @Param("purpose") String purpose,
+                                      @Param("code") String code, @Param("now") LocalDateTime now,
+                                      @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OtpEntity o SET o.code = null, o.verified = false WHERE o.email = :email AND o.purpose = :purpose")
+    int consume(@Param("email") String email, @Param("purpose") OtpPurpose purpose);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OtpEntity o WHERE o.expiresAt < :now AND o.windowStartedAt < :windowStart")
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("windowStart") LocalDateTime windowStart);
+}
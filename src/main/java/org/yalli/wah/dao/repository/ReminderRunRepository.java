@@ -0,0 +1,23 @@
+package org.yalli.wah.dao.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.yalli.wah.dao.entity.ReminderRunEntity;
+import org.yalli.wah.model.enums.ReminderRunStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReminderRunRepository extends JpaRepository<ReminderRunEntity, Long> {
+    Optional<ReminderRunEntity> findByRunDate(LocalDate runDate);
+
+    List<ReminderRunEntity> findAllByStatusOrderByRunDate(ReminderRunStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReminderRunEntity r WHERE r.id = :id")
+    Optional<ReminderRunEntity> lockById(@Param("id") Long id);
+}
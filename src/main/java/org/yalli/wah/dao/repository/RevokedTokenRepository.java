@@ -0,0 +1,27 @@
+package org.yalli.wah.dao.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import org.yalli.wah.dao.entity.RevokedTokenEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, Long> {
+    List<RevokedTokenEntity> findAllByExpiresAtAfter(LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO revoked_tokens (token_id, user_id, expires_at) " +
+            "VALUES (:tokenId, :userId, :expiresAt) ON CONFLICT (token_id) DO NOTHING", nativeQuery = true)
+    int insertTokenRevocation(@Param("tokenId") String tokenId, @Param("userId") Long userId,
+                              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedTokenEntity r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,64 @@
+package org.yalli.wah.dao.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.yalli.wah.dao.entity.SearchDocumentEntity;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SearchDocumentRepository extends JpaRepository<SearchDocumentEntity, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO search_documents (doc_type, doc_id, title, body, country, visible, updated_at) " +
+            "VALUES (:docType, :docId, :title, :body, :country, :visible, now()) " +
+            "ON CONFLICT (doc_type, doc_id) DO UPDATE SET title = EXCLUDED.title, body = EXCLUDED.body, " +
+            "country = EXCLUDED.country, visible = EXCLUDED.visible, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    void upsert(@Param("docType") String docType, @Param("docId") Long docId, @Param("title") String title,
+                @Param("body") String body, @Param("country") String country, @Param("visible") boolean visible);
+
+    @Modifying
+    @Query(value = "DELETE FROM search_documents WHERE doc_type = :docType AND doc_id IN (:docIds)",
+            nativeQuery = true)
+    int deleteDocuments(@Param("docType") String docType, @Param("docIds") Collection<Long> docIds);
+
+    @Query(value = "SELECT d.doc_type AS docType, d.doc_id AS docId, d.title AS title, d.country AS country, " +
+            "ts_rank_cd(d.document, q) AS rank " +
+            "FROM search_documents d, websearch_to_tsquery('simple', :query) q " +
+            "WHERE d.visible AND d.document @@ q " +
+            "AND (CAST(:docType AS varchar) IS NULL OR d.doc_type = :docType) " +
+            "AND (CAST(:country AS varchar) IS NULL OR d.country = :country) " +
+            "ORDER BY rank DESC, d.doc_id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<SearchHit> search(@Param("query") String query, @Param("docType") String docType,
+                           @Param("country") String country, @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query(value = "SELECT d.doc_type AS docType, count(*) AS total " +
+            "FROM search_documents d, websearch_to_tsquery('simple', :query) q " +
+            "WHERE d.visible AND d.document @@ q " +
+            "AND (CAST(:country AS varchar) IS NULL OR d.country = :country) " +
+            "GROUP BY d.doc_type", nativeQuery = true)
+    List<SearchFacet> facets(@Param("query") String query, @Param("country") String country);
+
+    @Query(value = "SELECT count(*) > 0 FROM search_documents WHERE doc_type = :docType", nativeQuery = true)
+    boolean existsByType(@Param("docType") String docType);
+
+    @Modifying
+    @Query(value = "INSERT INTO search_documents (doc_type, doc_id, title, body, country, visible, updated_at) " +
+            "SELECT 'EVENT', e.id, e.title, e.description, e.country, true, now() FROM events e " +
+            "ON CONFLICT (doc_type, doc_id) DO NOTHING", nativeQuery = true)
+    int backfillEvents();
+
+    @Modifying
+    @Query(value = "INSERT INTO search_documents (doc_type, doc_id, title, body, country, visible, updated_at) " +
+            "SELECT 'GROUP', g.id, g.title, concat_ws(' ', g.description, g.about), g.country, true, now() " +
+            "FROM groups g ON CONFLICT (doc_type, doc_id) DO NOTHING", nativeQuery = true)
+    int backfillGroups();
+
+    @Modifying
+    @Query(value = "INSERT INTO search_documents (doc_type, doc_id, title, body, country, visible, updated_at) " +
+            "SELECT 'MENTOR', m.id, m.full_name, m.description, m.country, m.mentor_status = 'ACCEPTED', now() " +
+            "FROM mentors m ON CONFLICT (doc_type, doc_id) DO NOTHING", nativeQuery = true)
+    int backfillMentors();
+}
@@ -0,0 +1,7 @@
+package org.yalli.wah.dao.repository;
+
+public interface SearchFacet {
+    String getDocType();
+
+    Long getTotal();
+}
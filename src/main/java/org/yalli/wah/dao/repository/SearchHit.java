@@ -0,0 +1,13 @@
+package org.yalli.wah.dao.repository;
+
+public interface SearchHit {
+    String getDocType();
+
+    Long getDocId();
+
+    String getTitle();
+
+    String getCountry();
+
+    Double getRank();
+}
@@ -1,18 +1,83 @@
 package org.yalli.wah.dao.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.yalli.wah.dao.entity.UserEntity;
+import org.yalli.wah.model.dto.UserExportRow;
+import org.yalli.wah.model.dto.UserSummaryDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long>, JpaSpecificationExecutor<UserEntity> {
     Optional<UserEntity> findByEmail(String email);
 
+    boolean existsByEmail(String email);
+
     Optional<UserEntity> findByAccessToken(String accessToken);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new org.yalli.wah.model.dto.UserExportRow(u.id, u.fullName, u.email, u.country, u.city, " +
+            "u.createdAt) FROM UserEntity u WHERE u.emailConfirmed = true ORDER BY u.id")
+    Stream<UserExportRow> streamConfirmedExportRows();
+
+    @Query("SELECT new org.yalli.wah.model.dto.UserSummaryDto(u.id, u.fullName, u.country, u.profilePictureUrl) " +
+            "FROM UserEntity u WHERE u.id IN :ids")
+    List<UserSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
     Page<UserEntity> findAll(Specification<UserEntity> spec, Pageable pageable);
     Optional<UserEntity> findAllByCountry(String country);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE users SET account_urls = COALESCE(account_urls, CAST('{}' AS jsonb)) || CAST(:accounts AS jsonb), " +
+            "number_of_not_completed_fields = COALESCE(number_of_not_completed_fields, 0) - " +
+            "CASE WHEN (account_urls IS NULL OR account_urls = CAST('{}' AS jsonb)) " +
+            "AND CAST(:accounts AS jsonb) <> CAST('{}' AS jsonb) THEN 1 ELSE 0 END, updated_at = now() " +
+            "WHERE id = :id", nativeQuery = true)
+    int mergeSocialMediaAccounts(@Param("id") Long id, @Param("accounts") String accounts);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE users SET account_urls = account_urls - CAST(:platform AS text), " +
+            "number_of_not_completed_fields = COALESCE(number_of_not_completed_fields, 0) + " +
+            "CASE WHEN account_urls <> CAST('{}' AS jsonb) " +
+            "AND account_urls - CAST(:platform AS text) = CAST('{}' AS jsonb) THEN 1 ELSE 0 END, updated_at = now() " +
+            "WHERE id = :id AND account_urls IS NOT NULL", nativeQuery = true)
+    int removeSocialMediaAccount(@Param("id") Long id, @Param("platform") String platform);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserEntity u SET u.notCompletedFields = :notCompletedFields WHERE u.id = :id")
+    int updateNotCompletedFields(@Param("id") Long id, @Param("notCompletedFields") Integer notCompletedFields);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserEntity u SET u.accessToken = :accessToken, u.tokenExpire = :tokenExpire WHERE u.id = :id")
+    int updateAccessToken(@Param("id") Long id, @Param("accessToken") String accessToken,
+                          @Param("tokenExpire") LocalDateTime tokenExpire);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserEntity u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserEntity u SET u.emailConfirmed = true WHERE u.email = :email")
+    int confirmEmail(@Param("email") String email);
 }
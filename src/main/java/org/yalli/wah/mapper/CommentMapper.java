@@ -10,7 +10,8 @@ public interface CommentMapper {
 
 
     @Mapping(target = "mentor.id", source = "commentAddDto.mentorId")
-    CommentEntity mapCommentAddDtoToComment(CommentAddDto commentAddDto, String userName);
+    @Mapping(target = "rate", source = "rate")
+    CommentEntity mapCommentAddDtoToComment(CommentAddDto commentAddDto, String userName, Integer rate);
 
 
 }
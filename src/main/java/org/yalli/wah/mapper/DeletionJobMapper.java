@@ -0,0 +1,13 @@
+package org.yalli.wah.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+import org.yalli.wah.dao.entity.DeletionJobEntity;
+import org.yalli.wah.model.dto.DeletionJobDto;
+
+@Mapper
+public interface DeletionJobMapper {
+    DeletionJobMapper INSTANCE = Mappers.getMapper(DeletionJobMapper.class);
+
+    DeletionJobDto mapEntityToDto(DeletionJobEntity deletionJobEntity);
+}
@@ -2,10 +2,8 @@ package org.yalli.wah.mapper;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.Named;
 import org.mapstruct.factory.Mappers;
 import org.yalli.wah.dao.entity.EventEntity;
-import org.yalli.wah.dao.entity.UserEntity;
 import org.yalli.wah.model.dto.EventDetailDto;
 import org.yalli.wah.model.dto.EventDto;
 
@@ -13,16 +11,14 @@ import org.yalli.wah.model.dto.EventDto;
 public abstract class EventMapper {
     public final static EventMapper INSTANCE = Mappers.getMapper(EventMapper.class);
 
-    @Mapping(target = "saved", expression = "java(checkIsSaved(event, userId))")
-    public abstract EventDto mapEntityToDto(EventEntity event, Long userId);
+    @Mapping(target = "saved", source = "saved")
+    public abstract EventDto mapEntityToDto(EventEntity event, boolean saved);
+
+    @Mapping(target = "saved", source = "saved")
+    public abstract EventDto withSaved(EventDto event, boolean saved);
 
     public abstract EventDetailDto manEntityToEventDetailDto(EventEntity event);
 
     @Mapping(target = "users", ignore = true)
     public abstract EventEntity mapDtoToEntity(EventDetailDto dto);
-
-    @Named("checkIsSaved")
-    protected boolean checkIsSaved(EventEntity eventEntity, Long userId) {
-        return eventEntity.getUsers().stream().map(UserEntity::getId).toList().contains(userId);
-    }
 }
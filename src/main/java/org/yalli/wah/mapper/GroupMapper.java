@@ -17,10 +17,12 @@ public abstract class GroupMapper {
     @Mapping(source = "category", target = "groupCategory")
     public abstract GroupLightDto mapEntityToGroupLightDto(GroupEntity group);
 
+    @Mapping(target = "owner", ignore = true)
     public abstract GroupDto mapEntityToDto(GroupEntity group);
 
     @Mapping(target = "userEntity.id", source = "userId")
     @Mapping(target = "renameCount", expression = "java(Short.valueOf(\"0\"))")
+    @Mapping(target = "memberCount", expression = "java(0L)")
     public abstract GroupEntity mapDtoToEntity(GroupRequest groupRequest);
 
     public abstract GroupEntity updateEntity(@MappingTarget GroupEntity groupEntity, GroupUpdateDto groupUpdateDto);
@@ -3,10 +3,7 @@ package org.yalli.wah.mapper;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.mapstruct.Mapping;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.yalli.wah.dao.entity.CommentEntity;
 import org.yalli.wah.dao.entity.MentorEntity;
@@ -14,7 +11,6 @@ import org.yalli.wah.dao.entity.UserEntity;
 import org.yalli.wah.dao.repository.CommentRepository;
 import org.yalli.wah.dao.repository.MentorRepository;
 import org.yalli.wah.dao.repository.UserRepository;
-import org.yalli.wah.model.dto.CommentDto;
 import org.yalli.wah.model.dto.MentorDetailDto;
 
 import java.util.ArrayList;
@@ -36,10 +32,4 @@ public class MapperService {
     public MentorEntity findMentorById(Long id) {
         return mentorRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("MENTOR ENTITY NOT FOUND"));
     }
-
-    public Page<CommentDto> ToCommentDtoPage(List<CommentDto> commentDtoList, Pageable pageable) {
-        final int start = (int) pageable.getOffset();
-        final int end = Math.min((start + pageable.getPageSize()), commentDtoList.size());
-        return new PageImpl<>(commentDtoList.subList(start, end), pageable, commentDtoList.size());
-    }
 }
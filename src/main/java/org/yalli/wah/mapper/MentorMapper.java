@@ -4,16 +4,21 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 import org.yalli.wah.dao.entity.MentorEntity;
+import org.yalli.wah.model.dto.CommentDto;
 import org.yalli.wah.model.dto.MentorDetailDto;
 import org.yalli.wah.model.dto.MentorSearchDto;
 import org.yalli.wah.model.enums.MentorStatus;
 
+import java.util.List;
+
 
 @Mapper(imports = { MentorStatus.class })
 public interface MentorMapper {
     MentorMapper INSTANCE = Mappers.getMapper(MentorMapper.class);
 
-    MentorDetailDto mapMentorToMentorDetailDto(MentorEntity mentorEntity, Double averageRating);
+    @Mapping(source = "mentorEntity.ratingAverage", target = "averageRating")
+    @Mapping(source = "latestComments", target = "comments")
+    MentorDetailDto mapMentorToMentorDetailDto(MentorEntity mentorEntity, List<CommentDto> latestComments);
 
     MentorSearchDto mapMentorEntityToMentorSearchDto(MentorEntity mentorEntity);
 
@@ -0,0 +1,28 @@
+package org.yalli.wah.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.yalli.wah.model.enums.DeletionJobStatus;
+import org.yalli.wah.model.enums.DeletionTarget;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletionJobDto {
+    private Long id;
+    private DeletionTarget target;
+    private Long userId;
+    private List<Long> groupIds;
+    private DeletionJobStatus status;
+    private Long deletedRows;
+    private Integer deletedObjects;
+    private Integer failedObjects;
+    private Integer attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,15 @@
+package org.yalli.wah.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class EventBulkSaveDto {
+    private Long userId;
+    private List<Long> eventIds;
+}
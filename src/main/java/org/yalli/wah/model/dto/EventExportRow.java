@@ -0,0 +1,27 @@
+package org.yalli.wah.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "title", "country", "city", "date", "isPopular", "viewCount", "saveCount", "link",
+        "createdAt"})
+public class EventExportRow {
+    private Long id;
+    private String title;
+    private String country;
+    private String city;
+    private LocalDate date;
+    private Boolean isPopular;
+    private long viewCount;
+    private long saveCount;
+    private String link;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package org.yalli.wah.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GalleryImagesDto {
+    private List<String> images;
+}
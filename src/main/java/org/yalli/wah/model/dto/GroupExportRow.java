@@ -0,0 +1,24 @@
+package org.yalli.wah.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.yalli.wah.model.enums.GroupCategory;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "title", "country", "category", "memberCount", "ownerId", "link", "createdAt"})
+public class GroupExportRow {
+    private Long id;
+    private String title;
+    private String country;
+    private GroupCategory category;
+    private Long memberCount;
+    private Long ownerId;
+    private String link;
+    private LocalDateTime createdAt;
+}
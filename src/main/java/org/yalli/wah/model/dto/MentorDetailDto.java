@@ -16,5 +16,7 @@ public class MentorDetailDto {
     private MentorCategory mentorCategory;
     private List<CommentDto> comments;
     private Double averageRating;
+    private Integer ratingCount;
+    private List<Integer> ratingHistogram;
     private String link;
 }
@@ -0,0 +1,24 @@
+package org.yalli.wah.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.yalli.wah.model.enums.MentorCategory;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "fullName", "country", "city", "email", "mentorCategory", "link", "createdAt"})
+public class MentorExportRow {
+    private Long id;
+    private String fullName;
+    private String country;
+    private String city;
+    private String email;
+    private MentorCategory mentorCategory;
+    private String link;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,24 @@
+package org.yalli.wah.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.yalli.wah.model.enums.MentorCategory;
+import org.yalli.wah.model.enums.MentorStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MentorIndexRow {
+    private Long id;
+    private String fullName;
+    private String country;
+    private MentorCategory mentorCategory;
+    private String profilePicture;
+    private Double ratingAverage;
+    private Integer ratingCount;
+    private LocalDateTime createdAt;
+    private MentorStatus mentorStatus;
+}
@@ -1,15 +1,21 @@
 package org.yalli.wah.model.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.yalli.wah.model.enums.MentorCategory;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class MentorSearchDto {
     private Long id;
     private String fullName;
     private String country;
     private MentorCategory mentorCategory;
     private String profilePicture;
+    private Double ratingAverage;
+    private Integer ratingCount;
 }
@@ -12,6 +12,6 @@ import java.util.List;
 @AllArgsConstructor
 public class MentorSearchRequest {
     private String fullName;
-    private String country;
+    private List<String> country;
     private List<MentorCategory> category;
 }
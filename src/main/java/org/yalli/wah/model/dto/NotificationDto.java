@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 public class NotificationDto {
+    private Long id;
     private String content;
     private String detail;
     private LocalDateTime sentTime;
+    private boolean read;
 }
@@ -0,0 +1,19 @@
+package org.yalli.wah.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.yalli.wah.model.enums.NotificationTarget;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationSendDto {
+    private String content;
+    private String detail;
+    private NotificationTarget target;
+    private String country;
+    private List<Long> userIds;
+}
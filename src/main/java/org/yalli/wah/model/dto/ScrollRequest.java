@@ -0,0 +1,16 @@
+package org.yalli.wah.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScrollRequest {
+    private String cursor;
+    private Integer size = 20;
+    private String sort = "id";
+    private Sort.Direction direction = Sort.Direction.ASC;
+}
@@ -0,0 +1,20 @@
+package org.yalli.wah.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.yalli.wah.model.enums.SearchDocumentType;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResponseDto {
+    private List<SearchResultDto> results;
+    private Map<SearchDocumentType, Long> facets;
+    private long total;
+    private int page;
+    private int size;
+}
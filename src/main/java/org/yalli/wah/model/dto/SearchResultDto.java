@@ -0,0 +1,17 @@
+package org.yalli.wah.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.yalli.wah.model.enums.SearchDocumentType;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDto {
+    private SearchDocumentType type;
+    private Long id;
+    private String title;
+    private String country;
+    private double rank;
+}
@@ -0,0 +1,21 @@
+package org.yalli.wah.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceDto<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public <R> SliceDto<R> map(Function<? super T, ? extends R> mapper) {
+        return new SliceDto<>(content.stream().<R>map(mapper).toList(), nextCursor, hasNext);
+    }
+}
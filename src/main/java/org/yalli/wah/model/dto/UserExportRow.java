@@ -0,0 +1,21 @@
+package org.yalli.wah.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "fullName", "email", "country", "city", "createdAt"})
+public class UserExportRow {
+    private Long id;
+    private String fullName;
+    private String email;
+    private String country;
+    private String city;
+    private LocalDateTime createdAt;
+}
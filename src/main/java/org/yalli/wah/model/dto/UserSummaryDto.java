@@ -0,0 +1,15 @@
+package org.yalli.wah.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDto {
+    private Long id;
+    private String fullName;
+    private String country;
+    private String profilePictureUrl;
+}
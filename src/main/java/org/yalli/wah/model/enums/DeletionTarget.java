@@ -0,0 +1,6 @@
+package org.yalli.wah.model.enums;
+
+public enum DeletionTarget {
+    USER,
+    GROUPS
+}
@@ -0,0 +1,5 @@
+package org.yalli.wah.model.enums;
+
+public enum ExportType {
+    EVENTS, GROUPS, MENTORS, USERS
+}
@@ -0,0 +1,8 @@
+package org.yalli.wah.model.enums;
+
+public enum MailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
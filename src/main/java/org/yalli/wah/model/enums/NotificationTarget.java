@@ -0,0 +1,7 @@
+package org.yalli.wah.model.enums;
+
+public enum NotificationTarget {
+    ALL,
+    COUNTRY,
+    USERS
+}
@@ -0,0 +1,6 @@
+package org.yalli.wah.model.enums;
+
+public enum OtpPurpose {
+    REGISTER_CONFIRM,
+    PASSWORD_RESET
+}
@@ -0,0 +1,5 @@
+package org.yalli.wah.model.enums;
+
+public enum ReminderRunStatus {
+    IN_PROGRESS, DONE
+}
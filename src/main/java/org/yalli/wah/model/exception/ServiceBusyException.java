@@ -0,0 +1,7 @@
+package org.yalli.wah.model.exception;
+
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
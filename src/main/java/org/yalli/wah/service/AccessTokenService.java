@@ -0,0 +1,121 @@
+package org.yalli.wah.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.yalli.wah.dao.entity.RevokedTokenEntity;
+import org.yalli.wah.dao.repository.RevokedTokenRepository;
+import org.yalli.wah.model.exception.PermissionException;
+import org.yalli.wah.util.TokenClaims;
+import org.yalli.wah.util.TokenUtil;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccessTokenService {
+    private final TokenUtil tokenUtil;
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final Map<String, Instant> revokedTokenIds = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> userCutoffs = new ConcurrentHashMap<>();
+
+    @Value("${token.refresh-window-minutes}")
+    private long refreshWindowMinutes;
+
+    @PostConstruct
+    public void loadRevocations() {
+        syncRevocations();
+    }
+
+    public String issue(Long userId) {
+        return tokenUtil.generateToken(userId);
+    }
+
+    public Optional<Long> resolveUserId(String token) {
+        var now = Instant.now();
+        return tokenUtil.parse(token)
+                .filter(claims -> !claims.isExpired(now) && !isRevoked(claims))
+                .map(TokenClaims::userId);
+    }
+
+    public Long requireUserId(String token) {
+        return resolveUserId(token).orElseThrow(() -> new PermissionException("INVALID_ACCESS_TOKEN"));
+    }
+
+    public Optional<TokenClaims> parseRefreshable(String token) {
+        var oldest = Instant.now().minus(Duration.ofMinutes(refreshWindowMinutes));
+        return tokenUtil.parse(token)
+                .filter(claims -> claims.expiresAt().isAfter(oldest) && !isRevoked(claims));
+    }
+
+    public boolean revoke(TokenClaims claims) {
+        revokedTokenIds.put(claims.tokenId(), claims.expiresAt());
+        return revokedTokenRepository.insertTokenRevocation(claims.tokenId(), claims.userId(),
+                toLocal(claims.expiresAt().plus(Duration.ofMinutes(refreshWindowMinutes)))) > 0;
+    }
+
+    public void revokeAllForUser(Long userId) {
+        var now = Instant.now();
+        userCutoffs.merge(userId, now, (current, next) -> next.isAfter(current) ? next : current);
+        var entity = new RevokedTokenEntity();
+        entity.setUserId(userId);
+        entity.setRevokedBefore(toLocal(now));
+        entity.setExpiresAt(toLocal(now.plus(tokenUtil.getTtl()).plus(Duration.ofMinutes(refreshWindowMinutes))));
+        revokedTokenRepository.save(entity);
+    }
+
+    @Scheduled(fixedDelayString = "${token.revocation-sync-ms}")
+    public void syncRevocations() {
+        // Re-read every live revocation: ids are assigned before commit, so an id watermark could skip a row
+        // that commits late. A row lives for ttl-minutes + refresh-window-minutes, so this reads one row per
+        // refresh, logout and password reset in the last 45 minutes.
+        var revocations = revokedTokenRepository.findAllByExpiresAtAfter(LocalDateTime.now());
+        for (RevokedTokenEntity revocation : revocations) {
+            var expiresAt = toInstant(revocation.getExpiresAt());
+            if (revocation.getTokenId() != null) {
+                revokedTokenIds.put(revocation.getTokenId(), expiresAt);
+            }
+            if (revocation.getRevokedBefore() != null) {
+                userCutoffs.merge(revocation.getUserId(), toInstant(revocation.getRevokedBefore()),
+                        (current, next) -> next.isAfter(current) ? next : current);
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 0 * * * *")
+    public void purgeExpired() {
+        var now = Instant.now();
+        var window = Duration.ofMinutes(refreshWindowMinutes);
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt.plus(window).isBefore(now));
+        userCutoffs.values().removeIf(cutoff -> cutoff.plus(tokenUtil.getTtl()).plus(window).isBefore(now));
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("ActionLog.purgeExpired.end removed {} revocations", deleted);
+    }
+
+    private boolean isRevoked(TokenClaims claims) {
+        if (revokedTokenIds.containsKey(claims.tokenId())) {
+            return true;
+        }
+        var cutoff = userCutoffs.get(claims.userId());
+        return cutoff != null && claims.issuedAt().isBefore(cutoff);
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
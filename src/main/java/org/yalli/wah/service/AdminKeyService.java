@@ -0,0 +1,21 @@
+package org.yalli.wah.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.yalli.wah.model.exception.PermissionException;
+import org.yalli.wah.util.SecretKeys;
+
+@Service
+@Slf4j
+public class AdminKeyService {
+    @Value("${admin.key}")
+    private String adminKey;
+
+    public void checkAdminKey(String key) {
+        if (!SecretKeys.matches(adminKey, key)) {
+            log.warn("ActionLog.checkAdminKey.error invalid admin key");
+            throw new PermissionException("INVALID_ADMIN_KEY");
+        }
+    }
+}
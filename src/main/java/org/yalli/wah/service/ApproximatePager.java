@@ -0,0 +1,97 @@
+package org.yalli.wah.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+public class ApproximatePager {
+    private final EntityManager entityManager;
+    private final CountCache countCache;
+
+    public <E> Page<E> findPage(Class<E> type, JpaSpecificationExecutor<E> repository, Specification<E> specification,
+                                Pageable pageable, String domain, String signature, boolean approximateTotal) {
+        if (!approximateTotal || pageable.isUnpaged()) {
+            long generation = countCache.generation(domain);
+            Page<E> page = repository.findAll(specification, pageable);
+            countCache.put(domain, signature, page.getTotalElements(), generation);
+            return page;
+        }
+        return findPage(type, type, root -> root, repository, specification, pageable, domain, signature, true);
+    }
+
+    public <E, D> Page<D> findProjectedPage(Class<E> type, Class<D> projection, List<String> attributes,
+                                            JpaSpecificationExecutor<E> repository, Specification<E> specification,
+                                            Pageable pageable, String domain, String signature,
+                                            boolean approximateTotal) {
+        return findPage(type, projection, root -> entityManager.getCriteriaBuilder().construct(projection,
+                        attributes.stream().map(root::get).toArray(Selection[]::new)),
+                repository, specification, pageable, domain, signature, approximateTotal);
+    }
+
+    private <E, D> Page<D> findPage(Class<E> type, Class<D> resultType, Function<Root<E>, Selection<D>> selection,
+                                    JpaSpecificationExecutor<E> repository, Specification<E> specification,
+                                    Pageable pageable, String domain, String signature, boolean approximateTotal) {
+        long generation = countCache.generation(domain);
+        List<D> content = findContent(type, resultType, selection, specification, pageable);
+        if (!approximateTotal || pageable.isUnpaged()) {
+            Page<D> page = PageableExecutionUtils.getPage(content, pageable, () -> repository.count(specification));
+            countCache.put(domain, signature, page.getTotalElements(), generation);
+            return page;
+        }
+
+        long total;
+        if (!content.isEmpty() && content.size() < pageable.getPageSize()) {
+            total = pageable.getOffset() + content.size();
+            countCache.put(domain, signature, total, generation);
+        } else if (pageable.getPageNumber() == 0) {
+            total = content.isEmpty() ? 0 : repository.count(specification);
+            countCache.put(domain, signature, total, generation);
+        } else {
+            var cached = countCache.get(domain, signature);
+            if (cached.isPresent()) {
+                total = cached.getAsLong();
+            } else {
+                total = repository.count(specification);
+                countCache.put(domain, signature, total, generation);
+            }
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private <E, D> List<D> findContent(Class<E> type, Class<D> resultType, Function<Root<E>, Selection<D>> selection,
+                                       Specification<E> specification, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<D> query = criteriaBuilder.createQuery(resultType);
+        Root<E> root = query.from(type);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(selection.apply(root));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+        var typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+}
@@ -5,9 +5,13 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.yalli.wah.dao.repository.CommentRepository;
+import org.yalli.wah.dao.repository.MentorRepository;
 import org.yalli.wah.mapper.CommentMapper;
 import org.yalli.wah.model.dto.CommentAddDto;
+import org.yalli.wah.model.exception.InvalidInputException;
+import org.yalli.wah.model.exception.ResourceNotFoundException;
 
 @Service
 @RequiredArgsConstructor
@@ -15,13 +19,34 @@ public class CommentService {
     private static final Logger log = LoggerFactory.getLogger(CommentService.class);
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
-    private final UserService userService;
+    private final UserSummaryCache userSummaryCache;
+    private final MentorRepository mentorRepository;
+    private final MentorIndex mentorIndex;
 
+    @Transactional
     public void addComment(CommentAddDto commentAddDto) {
         log.info("ActionLog.addComment.start user {}",commentAddDto.getUserId());
-        var username = userService.getUserById(commentAddDto.getUserId()).getFullName();
-        commentRepository.save(commentMapper.mapCommentAddDtoToComment(commentAddDto, username));
+        var username = userSummaryCache.get(commentAddDto.getUserId()).getFullName();
+        int rate = parseRate(commentAddDto.getRate());
+        if (mentorRepository.addRating(commentAddDto.getMentorId(), rate) == 0) {
+            log.error("ActionLog.addComment.error mentor not found with id {}", commentAddDto.getMentorId());
+            throw new ResourceNotFoundException("MENTOR_ENTITY_NOT_FOUND");
+        }
+        commentRepository.save(commentMapper.mapCommentAddDtoToComment(commentAddDto, username, rate));
+        mentorIndex.refresh(commentAddDto.getMentorId());
         log.info("ActionLog.addComment.end user {}",commentAddDto.getUserId());
     }
 
+    private int parseRate(String rate) {
+        try {
+            int value = Integer.parseInt(rate == null ? "" : rate.trim());
+            if (value >= 1 && value <= 5) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            log.error("ActionLog.addComment.error invalid rate {}", rate);
+        }
+        throw new InvalidInputException("INVALID_RATE");
+    }
+
 }
@@ -0,0 +1,98 @@
+package org.yalli.wah.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class CountCache {
+    public static final String EVENTS = "events";
+    public static final String GROUPS = "groups";
+    public static final String MENTORS = "mentors";
+    public static final String USERS = "users";
+
+    private final Map<CountKey, CachedCount> counts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    @Value("${pagination.count-cache.ttl-seconds}")
+    private long ttlSeconds;
+
+    @Value("${pagination.count-cache.max-entries}")
+    private int maxEntries;
+
+    public static String savedEvents(Long userId) {
+        return EVENTS + ":saved:" + userId;
+    }
+
+    public long generation(String domain) {
+        return generations.computeIfAbsent(domain, key -> new AtomicLong()).get();
+    }
+
+    public OptionalLong get(String domain, String signature) {
+        var cached = counts.get(new CountKey(domain, signature));
+        if (cached == null || cached.expiresAt() < System.currentTimeMillis()
+                || cached.generation() != generation(domain)) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(cached.total());
+    }
+
+    public void put(String domain, String signature, long total, long generation) {
+        if (generation != generation(domain)) {
+            return;
+        }
+        if (counts.size() >= maxEntries) {
+            purgeExpired();
+            if (counts.size() >= maxEntries) {
+                return;
+            }
+        }
+        counts.put(new CountKey(domain, signature),
+                new CachedCount(total, generation, System.currentTimeMillis() + ttlSeconds * 1000));
+    }
+
+    public void invalidate(String domain) {
+        evict(domain);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(domain);
+                }
+            });
+        }
+    }
+
+    private void evict(String domain) {
+        generations.computeIfAbsent(domain, key -> new AtomicLong()).incrementAndGet();
+        generations.forEach((key, generation) -> {
+            if (isWithin(key, domain)) {
+                generation.incrementAndGet();
+            }
+        });
+        counts.keySet().removeIf(key -> key.domain().equals(domain) || isWithin(key.domain(), domain));
+    }
+
+    @Scheduled(fixedDelayString = "${pagination.count-cache.purge-interval-ms}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        counts.values().removeIf(cached -> cached.expiresAt() < now);
+    }
+
+    private static boolean isWithin(String key, String domain) {
+        return key.startsWith(domain + ":");
+    }
+
+    private record CountKey(String domain, String signature) {
+    }
+
+    private record CachedCount(long total, long generation, long expiresAt) {
+    }
+}
@@ -0,0 +1,343 @@
+package org.yalli.wah.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.yalli.wah.dao.entity.DeletionJobEntity;
+import org.yalli.wah.dao.repository.DeletionJobRepository;
+import org.yalli.wah.mapper.DeletionJobMapper;
+import org.yalli.wah.model.dto.DeletionJobDto;
+import org.yalli.wah.model.enums.DeletionJobStatus;
+import org.yalli.wah.model.enums.DeletionTarget;
+import org.yalli.wah.model.exception.ResourceNotFoundException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+@Slf4j
+public class DeletionJobService {
+    private static final String GROUP_CHUNK_SQL = "WITH doomed AS (" +
+            "SELECT g.id, g.image_id, g.gallery FROM groups g WHERE g.user_id = ? AND (? OR g.id IN (" +
+            "SELECT CAST(jsonb_array_elements_text(j.group_ids) AS BIGINT) FROM deletion_jobs j WHERE j.id = ?)) " +
+            "ORDER BY g.id LIMIT ? FOR UPDATE), " +
+            "objects AS (INSERT INTO deletion_objects (job_id, object_name) SELECT ?, o.name FROM doomed d " +
+            "CROSS JOIN LATERAL (SELECT d.image_id UNION ALL " +
+            "SELECT jsonb_array_elements_text(COALESCE(d.gallery, CAST('[]' AS jsonb)))) o(name) " +
+            "WHERE o.name IS NOT NULL AND o.name <> ''), " +
+            "documents AS (DELETE FROM search_documents WHERE doc_type = 'GROUP' " +
+            "AND doc_id IN (SELECT id FROM doomed)) " +
+            "DELETE FROM groups WHERE id IN (SELECT id FROM doomed) RETURNING id";
+    private static final String SAVED_EVENTS_CHUNK_SQL = "DELETE FROM user_saved_events WHERE user_id = ? " +
+            "AND event_id IN (SELECT event_id FROM user_saved_events WHERE user_id = ? LIMIT ?) RETURNING event_id";
+    private static final String NOTIFICATIONS_CHUNK_SQL = "DELETE FROM user_notifications WHERE user_id = ? " +
+            "AND notifications_id IN (SELECT notifications_id FROM user_notifications WHERE user_id = ? LIMIT ?)";
+    private static final String MEMBERSHIPS_CHUNK_SQL = "WITH gone AS (" +
+            "DELETE FROM group_members WHERE user_id = ? " +
+            "AND group_id IN (SELECT group_id FROM group_members WHERE user_id = ? LIMIT ?) RETURNING group_id), " +
+            "counted AS (UPDATE groups SET member_count = GREATEST(member_count - 1, 0) " +
+            "WHERE id IN (SELECT group_id FROM gone)) " +
+            "SELECT count(*) FROM gone";
+    private static final String USER_SQL = "WITH gone AS (" +
+            "DELETE FROM users WHERE id = ? RETURNING profile_picture_url), " +
+            "objects AS (INSERT INTO deletion_objects (job_id, object_name) SELECT ?, profile_picture_url FROM gone " +
+            "WHERE profile_picture_url IS NOT NULL AND profile_picture_url <> '') " +
+            "SELECT count(*) FROM gone";
+    private static final String ROW_PROGRESS_SQL = "UPDATE deletion_jobs SET deleted_rows = deleted_rows + ?, " +
+            "claimed_at = now() WHERE id = ?";
+    private static final String OBJECT_PROGRESS_SQL = "UPDATE deletion_jobs " +
+            "SET deleted_objects = deleted_objects + ?, claimed_at = now() WHERE id = ?";
+    private static final String OBJECTS_SQL = "SELECT id, object_name FROM deletion_objects " +
+            "WHERE job_id = ? AND attempts < ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String DELETE_OBJECT_SQL = "DELETE FROM deletion_objects WHERE id = ?";
+    private static final String OBJECT_FAILED_SQL = "UPDATE deletion_objects SET attempts = attempts + 1 WHERE id = ?";
+    private static final String COUNT_OBJECTS_SQL = "SELECT count(*) FROM deletion_objects WHERE job_id = ? " +
+            "AND attempts < ?";
+    private static final String COUNT_FAILED_OBJECTS_SQL = "SELECT count(*) FROM deletion_objects WHERE job_id = ? " +
+            "AND attempts >= ?";
+
+    private final DeletionJobRepository deletionJobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MinioService minioService;
+    private final MembershipIndex membershipIndex;
+    private final CountCache countCache;
+    private final EventPopularityService eventPopularityService;
+    private final UserSummaryCache userSummaryCache;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService objectExecutor;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    @Value("${deletion.chunk-size}")
+    private int chunkSize;
+
+    @Value("${deletion.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${deletion.max-object-attempts}")
+    private int maxObjectAttempts;
+
+    @Value("${deletion.backoff-ms}")
+    private long backoffMs;
+
+    @Value("${deletion.stale-after-ms}")
+    private long staleAfterMs;
+
+    public DeletionJobService(DeletionJobRepository deletionJobRepository,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              MinioService minioService,
+                              MembershipIndex membershipIndex,
+                              CountCache countCache,
+                              EventPopularityService eventPopularityService,
+                              UserSummaryCache userSummaryCache,
+                              @Value("${deletion.workers}") int workers,
+                              @Value("${deletion.object-parallelism}") int objectParallelism) {
+        this.deletionJobRepository = deletionJobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.minioService = minioService;
+        this.membershipIndex = membershipIndex;
+        this.countCache = countCache;
+        this.eventPopularityService = eventPopularityService;
+        this.userSummaryCache = userSummaryCache;
+        this.jobExecutor = Executors.newFixedThreadPool(workers,
+                Thread.ofVirtual().name("deletion-job-", 0).factory());
+        this.objectExecutor = Executors.newFixedThreadPool(objectParallelism,
+                Thread.ofVirtual().name("deletion-object-", 0).factory());
+    }
+
+    public DeletionJobDto enqueueUserDeletion(Long userId) {
+        return enqueue(DeletionTarget.USER, userId, null);
+    }
+
+    public DeletionJobDto enqueueGroupDeletion(Long userId, List<Long> groupIds) {
+        return enqueue(DeletionTarget.GROUPS, userId, List.copyOf(groupIds));
+    }
+
+    public DeletionJobDto getJob(Long id) {
+        return DeletionJobMapper.INSTANCE.mapEntityToDto(deletionJobRepository.findById(id).orElseThrow(() -> {
+            log.error("ActionLog.getJob.error deletion job not found with id {}", id);
+            return new ResourceNotFoundException("DELETION_JOB_NOT_FOUND");
+        }));
+    }
+
+    @Scheduled(fixedDelayString = "${deletion.poll-interval-ms}")
+    public void pollJobs() {
+        var now = LocalDateTime.now();
+        deletionJobRepository.releaseStaleClaims(DeletionJobStatus.RUNNING, DeletionJobStatus.PENDING,
+                now.minus(Duration.ofMillis(staleAfterMs)));
+        deletionJobRepository.findDueIds(DeletionJobStatus.PENDING, now, PageRequest.of(0, 100))
+                .forEach(this::submit);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        objectExecutor.shutdownNow();
+    }
+
+    private DeletionJobDto enqueue(DeletionTarget target, Long userId, List<Long> groupIds) {
+        var job = new DeletionJobEntity();
+        job.setTarget(target);
+        job.setUserId(userId);
+        job.setGroupIds(groupIds);
+        job = deletionJobRepository.save(job);
+        Long id = job.getId();
+        log.info("ActionLog.enqueueDeletion job {} target {} user {}", id, target, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(id);
+                }
+            });
+        } else {
+            submit(id);
+        }
+        return DeletionJobMapper.INSTANCE.mapEntityToDto(job);
+    }
+
+    private void submit(Long id) {
+        if (!running.add(id)) {
+            return;
+        }
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    process(id);
+                } finally {
+                    running.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.remove(id);
+        }
+    }
+
+    private void process(Long id) {
+        if (deletionJobRepository.claim(id, DeletionJobStatus.PENDING, DeletionJobStatus.RUNNING,
+                LocalDateTime.now()) == 0) {
+            return;
+        }
+        var job = deletionJobRepository.findById(id).orElse(null);
+        if (job == null) {
+            return;
+        }
+        log.info("ActionLog.processDeletion.start job {} target {} user {}", id, job.getTarget(), job.getUserId());
+        try {
+            deleteRows(job);
+            if (!deleteObjects(id)) {
+                scheduleRetry(job, "objects left in the store");
+                return;
+            }
+            job.setStatus(DeletionJobStatus.DONE);
+            job.setFailedObjects(jdbcTemplate.queryForObject(COUNT_FAILED_OBJECTS_SQL, Integer.class, id,
+                    maxObjectAttempts));
+            job.setLastError(null);
+            job.setFinishedAt(LocalDateTime.now());
+            deletionJobRepository.save(job);
+            log.info("ActionLog.processDeletion.end job {}", id);
+        } catch (RuntimeException e) {
+            log.error("ActionLog.processDeletion.error job {}", id, e);
+            scheduleRetry(job, e.getMessage());
+        }
+    }
+
+    private void deleteRows(DeletionJobEntity job) {
+        Long id = job.getId();
+        Long userId = job.getUserId();
+        boolean user = job.getTarget() == DeletionTarget.USER;
+        drain(id, () -> {
+            List<Long> groupIds = jdbcTemplate.queryForList(GROUP_CHUNK_SQL, Long.class, userId, user, id, chunkSize,
+                    id);
+            if (!groupIds.isEmpty()) {
+                membershipIndex.groupsDeleted(groupIds);
+                countCache.invalidate(CountCache.GROUPS);
+            }
+            return groupIds.size();
+        });
+        if (!user) {
+            return;
+        }
+
+        drain(id, () -> {
+            List<Long> eventIds = jdbcTemplate.queryForList(SAVED_EVENTS_CHUNK_SQL, Long.class, userId, userId,
+                    chunkSize);
+            eventIds.forEach(eventId -> eventPopularityService.recordSaves(eventId, -1));
+            return eventIds.size();
+        });
+        drain(id, () -> jdbcTemplate.update(NOTIFICATIONS_CHUNK_SQL, userId, userId, chunkSize));
+        drain(id, () -> jdbcTemplate.queryForObject(MEMBERSHIPS_CHUNK_SQL, Long.class, userId, userId, chunkSize)
+                .intValue());
+        inChunk(id, () -> {
+            int deleted = jdbcTemplate.queryForObject(USER_SQL, Long.class, userId, id).intValue();
+            membershipIndex.userDeleted(userId);
+            userSummaryCache.invalidate(userId);
+            countCache.invalidate(CountCache.USERS);
+            countCache.invalidate(CountCache.savedEvents(userId));
+            return deleted;
+        });
+    }
+
+    private void drain(Long id, ChunkStatement statement) {
+        int deleted;
+        do {
+            deleted = inChunk(id, statement);
+        } while (deleted > 0);
+    }
+
+    private int inChunk(Long id, ChunkStatement statement) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            int rows = statement.run();
+            jdbcTemplate.update(ROW_PROGRESS_SQL, rows, id);
+            return rows;
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    private boolean deleteObjects(Long id) {
+        long lastId = 0;
+        while (true) {
+            List<StoredObject> objects = jdbcTemplate.query(OBJECTS_SQL, (rs, rowNum) -> new StoredObject(
+                    rs.getLong("id"), rs.getString("object_name")), id, maxObjectAttempts, lastId, chunkSize);
+            if (objects.isEmpty()) {
+                break;
+            }
+            List<Future<?>> removals = new ArrayList<>(objects.size());
+            for (StoredObject object : objects) {
+                removals.add(objectExecutor.submit(() -> {
+                    minioService.deleteFile(object.name());
+                    return null;
+                }));
+            }
+            List<StoredObject> removed = new ArrayList<>();
+            List<StoredObject> failed = new ArrayList<>();
+            for (int i = 0; i < objects.size(); i++) {
+                var object = objects.get(i);
+                try {
+                    removals.get(i).get();
+                    removed.add(object);
+                } catch (ExecutionException e) {
+                    log.warn("ActionLog.deleteObjects.warn job {} object {} not removed", id, object.name(),
+                            e.getCause());
+                    failed.add(object);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while removing objects", e);
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(DELETE_OBJECT_SQL, removed, removed.size(),
+                        (statement, object) -> statement.setLong(1, object.id()));
+                jdbcTemplate.batchUpdate(OBJECT_FAILED_SQL, failed, failed.size(),
+                        (statement, object) -> statement.setLong(1, object.id()));
+                jdbcTemplate.update(OBJECT_PROGRESS_SQL, removed.size(), id);
+            });
+            lastId = objects.get(objects.size() - 1).id();
+        }
+        return jdbcTemplate.queryForObject(COUNT_OBJECTS_SQL, Long.class, id, maxObjectAttempts) == 0;
+    }
+
+    private void scheduleRetry(DeletionJobEntity job, String error) {
+        int attempts = job.getAttempts() + 1;
+        job.setAttempts(attempts);
+        job.setLastError(StringUtils.abbreviate(error, 1000));
+        if (attempts >= maxAttempts) {
+            job.setStatus(DeletionJobStatus.FAILED);
+            job.setFinishedAt(LocalDateTime.now());
+            log.error("ActionLog.processDeletion.error job {} failed after {} attempts", job.getId(), attempts);
+        } else {
+            long delay = backoffMs << Math.min(attempts - 1, 20);
+            job.setStatus(DeletionJobStatus.PENDING);
+            job.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(delay)));
+            log.warn("ActionLog.processDeletion.warn job {} attempt {} failed, retry in {} ms", job.getId(),
+                    attempts, delay);
+        }
+        deletionJobRepository.save(job);
+    }
+
+    private interface ChunkStatement {
+        int run();
+    }
+
+    private record StoredObject(long id, String name) {
+    }
+}
@@ -1,35 +1,32 @@
 package org.yalli.wah.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.yalli.wah.dao.entity.MailOutboxEntity;
+
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
 public class EmailService {
-    private final JavaMailSender mailSender;
-
-    public void sendConfirmationEmail(String email,String otp){
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom("tina.hilpert73@ethereal.email");
-        message.setTo(email);
+    private final MailDispatcher mailDispatcher;
 
-        message.setSubject("Confirm Email - OTP");
+    public void sendConfirmationEmail(String email, String otp) {
         String emailBody = String.format("Your otp code for confirm email %s", otp);
-        message.setText(emailBody);
-        mailSender.send(message);
+        send(email, "Confirm Email - OTP", emailBody);
     }
 
     public void sendOtp(String email, String otp) {
-
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom("tina.hilpert73@ethereal.email");
-        message.setTo(email);
-
-        message.setSubject("Reset Password - OTP");
         String emailBody = String.format("Your otp code for resettin password is %s", otp);
-        message.setText(emailBody);
-        mailSender.send(message);
+        send(email, "Reset Password - OTP", emailBody);
+    }
+
+    private void send(String email, String subject, String body) {
+        MailOutboxEntity mail = new MailOutboxEntity();
+        mail.setRecipient(email);
+        mail.setSubject(subject);
+        mail.setBody(body);
+        mail.setNextAttemptAt(LocalDateTime.now());
+        mailDispatcher.enqueue(mail);
     }
 }
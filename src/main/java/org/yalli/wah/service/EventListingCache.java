@@ -0,0 +1,86 @@
+package org.yalli.wah.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.yalli.wah.model.dto.EventDto;
+import org.yalli.wah.model.dto.EventSearchRequest;
+import org.yalli.wah.model.enums.EventCategory;
+import org.yalli.wah.util.LruCache;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class EventListingCache {
+    private final LruCache<ListingKey, CachedPage> pages;
+    private final AtomicLong generation = new AtomicLong();
+
+    public EventListingCache(@Value("${events.listing-cache.max-entries}") int maxEntries) {
+        this.pages = new LruCache<>(maxEntries);
+    }
+
+    public Page<EventDto> get(EventSearchRequest eventSearchRequest, Pageable pageable,
+                              Supplier<Page<EventDto>> loader) {
+        var key = ListingKey.of(eventSearchRequest, pageable);
+        var today = LocalDate.now();
+        var cached = pages.get(key);
+        if (cached != null && cached.day().equals(today)) {
+            return cached.page();
+        }
+        long loadedAt = generation.get();
+        var page = loader.get();
+        if (loadedAt == generation.get()) {
+            pages.put(key, new CachedPage(page, today));
+        }
+        return page;
+    }
+
+    public void invalidate() {
+        evict();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict();
+                }
+            });
+        }
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void expireAtDayBoundary() {
+        log.info("ActionLog.expireAtDayBoundary evicting {} cached event pages", pages.size());
+        evict();
+    }
+
+    private void evict() {
+        generation.incrementAndGet();
+        pages.clear();
+    }
+
+    private record CachedPage(Page<EventDto> page, LocalDate day) {
+    }
+
+    private record ListingKey(String title, String country, List<EventCategory> categories,
+                              int page, int size, Sort sort) {
+        static ListingKey of(EventSearchRequest request, Pageable pageable) {
+            var title = request.getTitle() == null || request.getTitle().isEmpty() ? null : request.getTitle();
+            var country = request.getCountry() == null || request.getCountry().isEmpty() ? null : request.getCountry();
+            var categories = request.getCategory() == null ? List.<EventCategory>of()
+                    : request.getCategory().stream().filter(Objects::nonNull).distinct().sorted().toList();
+            return new ListingKey(title, country, categories, pageable.getPageNumber(), pageable.getPageSize(),
+                    pageable.getSort());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.yalli.wah.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.yalli.wah.dao.repository.EventRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class EventPopularityService {
+    private static final Instant LANDMARK = Instant.parse("2024-01-01T00:00:00Z");
+    private static final String FLUSH_SQL = "UPDATE events SET view_count = view_count + ?, " +
+            "save_count = GREATEST(save_count + ?, 0), " +
+            "popularity_score = CASE WHEN ? THEN GREATEST(popularity_score, ?) " +
+            "+ ln(1 + exp(-abs(popularity_score - ?))) ELSE popularity_score END " +
+            "WHERE id = ?";
+
+    private final Map<Long, Engagement> pending = new ConcurrentHashMap<>();
+    private final EventRepository eventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EventListingCache eventListingCache;
+    private final CountCache countCache;
+    private final double decaySeconds;
+    private final double viewWeight;
+    private final double saveWeight;
+    private final int topSize;
+    private volatile Set<Long> topIds = Set.of();
+
+    public EventPopularityService(EventRepository eventRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  EventListingCache eventListingCache,
+                                  CountCache countCache,
+                                  @Value("${events.popularity.half-life-hours}") double halfLifeHours,
+                                  @Value("${events.popularity.view-weight}") double viewWeight,
+                                  @Value("${events.popularity.save-weight}") double saveWeight,
+                                  @Value("${events.popularity.top-size}") int topSize) {
+        this.eventRepository = eventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventListingCache = eventListingCache;
+        this.countCache = countCache;
+        this.decaySeconds = halfLifeHours * 3600 / Math.log(2);
+        this.viewWeight = viewWeight;
+        this.saveWeight = saveWeight;
+        this.topSize = topSize;
+    }
+
+    public void recordView(Long eventId) {
+        add(eventId, 1, 0);
+    }
+
+    public void recordSaves(Long eventId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(eventId, 0, delta);
+                }
+            });
+        } else {
+            add(eventId, 0, delta);
+        }
+    }
+
+    public Set<Long> getTopIds() {
+        return topIds;
+    }
+
+    @Scheduled(fixedDelayString = "${events.popularity.flush-interval-ms}")
+    public void flush() {
+        write(drain());
+        refreshTopIds();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshTopIds() {
+        var refreshed = Set.copyOf(eventRepository.findTopPopularIds(PageRequest.of(0, topSize)));
+        if (!refreshed.equals(topIds)) {
+            topIds = refreshed;
+            eventListingCache.invalidate();
+            countCache.invalidate(CountCache.EVENTS);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        write(drain());
+    }
+
+    private void write(List<EngagementDelta> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        double decayedNow = (Instant.now().getEpochSecond() - LANDMARK.getEpochSecond()) / decaySeconds;
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch, batch.size(), (statement, delta) -> {
+                double weight = delta.views() * viewWeight + Math.max(delta.saves(), 0) * saveWeight;
+                double increment = weight > 0 ? Math.log(weight) + decayedNow : 0;
+                statement.setLong(1, delta.views());
+                statement.setLong(2, delta.saves());
+                statement.setBoolean(3, weight > 0);
+                statement.setDouble(4, increment);
+                statement.setDouble(5, increment);
+                statement.setLong(6, delta.eventId());
+            });
+            log.info("ActionLog.flushPopularity flushed {} events", batch.size());
+        } catch (RuntimeException e) {
+            log.error("ActionLog.flushPopularity.error requeueing {} events", batch.size(), e);
+            batch.forEach(this::requeue);
+        }
+    }
+
+    private void requeue(EngagementDelta delta) {
+        add(delta.eventId(), delta.views(), delta.saves());
+    }
+
+    private void add(Long eventId, long views, long saves) {
+        pending.compute(eventId, (id, engagement) -> {
+            var current = engagement == null ? new Engagement() : engagement;
+            current.views += views;
+            current.saves += saves;
+            return current;
+        });
+    }
+
+    private List<EngagementDelta> drain() {
+        List<EngagementDelta> batch = new ArrayList<>();
+        for (Long eventId : pending.keySet()) {
+            pending.computeIfPresent(eventId, (id, engagement) -> {
+                if (engagement.views != 0 || engagement.saves != 0) {
+                    batch.add(new EngagementDelta(id, engagement.views, engagement.saves));
+                }
+                return null;
+            });
+        }
+        return batch;
+    }
+
+    private static class Engagement {
+        private long views;
+        private long saves;
+    }
+
+    private record EngagementDelta(Long eventId, long views, long saves) {
+    }
+}
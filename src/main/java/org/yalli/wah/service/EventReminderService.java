@@ -0,0 +1,202 @@
+package org.yalli.wah.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.yalli.wah.dao.entity.NotificationEntity;
+import org.yalli.wah.dao.entity.ReminderRunEntity;
+import org.yalli.wah.dao.repository.NotificationRepository;
+import org.yalli.wah.dao.repository.ReminderRunRepository;
+import org.yalli.wah.model.enums.ReminderRunStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class EventReminderService {
+    private static final String UNREMINDED_EVENTS_SQL = "SELECT e.id, e.title, e.date FROM events e " +
+            "WHERE e.date BETWEEN ? AND ? " +
+            "AND NOT EXISTS (SELECT 1 FROM event_reminders r WHERE r.event_id = e.id) ORDER BY e.id";
+    private static final String INSERT_REMINDER_SQL = "INSERT INTO event_reminders (event_id, run_id, notification_id) " +
+            "VALUES (?, ?, ?) ON CONFLICT (event_id) DO NOTHING";
+    private static final String SAVERS_SELECT = "SELECT s.user_id, s.event_id, r.notification_id, u.email, " +
+            "u.email_confirmed, e.title, e.date " +
+            "FROM event_reminders r " +
+            "JOIN user_saved_events s ON s.event_id = r.event_id " +
+            "JOIN users u ON u.id = s.user_id " +
+            "JOIN events e ON e.id = r.event_id ";
+    private static final String SAVERS_SQL = SAVERS_SELECT +
+            "WHERE r.run_id = ? AND (s.user_id, s.event_id) > (?, ?) " +
+            "ORDER BY s.user_id, s.event_id LIMIT ?";
+    private static final String USER_SAVERS_SQL = SAVERS_SELECT +
+            "WHERE r.run_id = ? AND s.user_id = ? AND s.event_id > ? ORDER BY s.event_id";
+    private static final RowMapper<SaverRow> SAVER_ROW = (rs, rowNum) -> new SaverRow(
+            rs.getLong("user_id"), rs.getLong("event_id"), rs.getLong("notification_id"),
+            rs.getString("email"), rs.getBoolean("email_confirmed"), rs.getString("title"),
+            rs.getDate("date").toLocalDate());
+    private static final String INSERT_USER_NOTIFICATION_SQL = "INSERT INTO user_notifications " +
+            "(user_id, notifications_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_MAIL_SQL = "INSERT INTO mail_outbox " +
+            "(recipient, subject, body, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, 'PENDING', 0, now(), now())";
+
+    private final ReminderRunRepository reminderRunRepository;
+    private final NotificationRepository notificationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int daysAhead;
+    private final int chunkSize;
+
+    public EventReminderService(ReminderRunRepository reminderRunRepository,
+                                NotificationRepository notificationRepository,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${reminders.days-ahead}") int daysAhead,
+                                @Value("${reminders.chunk-size}") int chunkSize) {
+        this.reminderRunRepository = reminderRunRepository;
+        this.notificationRepository = notificationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.daysAhead = daysAhead;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${reminders.cron}")
+    public void remindSavedEvents() {
+        reminderRunRepository.findAllByStatusOrderByRunDate(ReminderRunStatus.IN_PROGRESS).forEach(this::walk);
+        var run = startRun(LocalDate.now());
+        if (run.getStatus() != ReminderRunStatus.DONE) {
+            walk(run);
+        }
+    }
+
+    private void walk(ReminderRunEntity run) {
+        log.info("ActionLog.remindSavedEvents.start run {} from user {} event {}", run.getId(),
+                run.getLastUserId(), run.getLastEventId());
+        long delivered = 0;
+        Integer processed;
+        do {
+            processed = transactionTemplate.execute(status -> processChunk(run.getId()));
+            delivered += processed == null ? 0 : processed;
+        } while (processed != null && processed > 0);
+        log.info("ActionLog.remindSavedEvents.end run {} delivered {}", run.getId(), delivered);
+    }
+
+    private ReminderRunEntity startRun(LocalDate today) {
+        try {
+            return transactionTemplate.execute(status -> reminderRunRepository.findByRunDate(today)
+                    .orElseGet(() -> createRun(today)));
+        } catch (DataIntegrityViolationException e) {
+            return reminderRunRepository.findByRunDate(today).orElseThrow(() -> e);
+        }
+    }
+
+    private ReminderRunEntity createRun(LocalDate today) {
+        var run = new ReminderRunEntity();
+        run.setRunDate(today);
+        run.setStatus(ReminderRunStatus.IN_PROGRESS);
+        run.setStartedAt(LocalDateTime.now());
+        run = reminderRunRepository.saveAndFlush(run);
+        Long runId = run.getId();
+        List<UpcomingEvent> events = jdbcTemplate.query(UNREMINDED_EVENTS_SQL, (rs, rowNum) -> new UpcomingEvent(
+                rs.getLong("id"), rs.getString("title"), rs.getDate("date").toLocalDate()),
+                today, today.plusDays(daysAhead));
+        for (UpcomingEvent event : events) {
+            var notification = new NotificationEntity();
+            notification.setContent("Reminder: " + event.title() + " is on " + event.date());
+            notification.setDetail("/v1/events/" + event.id());
+            notification.setForAllUsers(false);
+            notification = notificationRepository.save(notification);
+            jdbcTemplate.update(INSERT_REMINDER_SQL, event.id(), runId, notification.getId());
+        }
+        log.info("ActionLog.startRun run {} reminding {} events", runId, events.size());
+        return run;
+    }
+
+    private int processChunk(Long runId) {
+        var run = reminderRunRepository.lockById(runId).orElseThrow();
+        if (run.getStatus() == ReminderRunStatus.DONE) {
+            return 0;
+        }
+        List<SaverRow> rows = jdbcTemplate.query(SAVERS_SQL, SAVER_ROW, runId, run.getLastUserId(),
+                run.getLastEventId(), chunkSize);
+        if (rows.isEmpty()) {
+            run.setStatus(ReminderRunStatus.DONE);
+            run.setFinishedAt(LocalDateTime.now());
+            return 0;
+        }
+        rows = completeUsersOnly(runId, rows);
+
+        jdbcTemplate.batchUpdate(INSERT_USER_NOTIFICATION_SQL, rows, rows.size(), (statement, row) -> {
+            statement.setLong(1, row.userId());
+            statement.setLong(2, row.notificationId());
+        });
+        var digests = digests(rows);
+        jdbcTemplate.batchUpdate(INSERT_MAIL_SQL, digests, digests.size(), (statement, digest) -> {
+            statement.setString(1, digest.email());
+            statement.setString(2, "Upcoming events you saved");
+            statement.setString(3, digest.body());
+        });
+
+        var last = rows.get(rows.size() - 1);
+        run.setLastUserId(last.userId());
+        run.setLastEventId(last.eventId());
+        return rows.size();
+    }
+
+    private List<SaverRow> completeUsersOnly(Long runId, List<SaverRow> rows) {
+        if (rows.size() < chunkSize) {
+            return rows;
+        }
+        var trailing = rows.get(rows.size() - 1);
+        int end = rows.size();
+        while (end > 0 && rows.get(end - 1).userId() == trailing.userId()) {
+            end--;
+        }
+        if (end > 0) {
+            return rows.subList(0, end);
+        }
+        List<SaverRow> user = new ArrayList<>(rows);
+        user.addAll(jdbcTemplate.query(USER_SAVERS_SQL, SAVER_ROW, runId, trailing.userId(), trailing.eventId()));
+        return user;
+    }
+
+    private List<Digest> digests(List<SaverRow> rows) {
+        Map<Long, StringBuilder> bodies = new LinkedHashMap<>();
+        Map<Long, String> emails = new LinkedHashMap<>();
+        for (SaverRow row : rows) {
+            if (!row.emailConfirmed() || row.email() == null) {
+                continue;
+            }
+            emails.put(row.userId(), row.email());
+            bodies.computeIfAbsent(row.userId(), id -> new StringBuilder("Events you saved are coming up:\n"))
+                    .append("- ").append(row.title()).append(" on ").append(row.date()).append('\n');
+        }
+        List<Digest> digests = new ArrayList<>(emails.size());
+        emails.forEach((userId, email) -> digests.add(new Digest(email, bodies.get(userId).toString())));
+        return digests;
+    }
+
+    private record SaverRow(long userId, long eventId, long notificationId, String email, boolean emailConfirmed,
+                            String title, LocalDate date) {
+    }
+
+    private record UpcomingEvent(long id, String title, LocalDate date) {
+    }
+
+    private record Digest(String email, String body) {
+    }
+}
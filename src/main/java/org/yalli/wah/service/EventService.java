@@ -9,38 +9,89 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.yalli.wah.dao.entity.EventEntity;
 import org.yalli.wah.dao.entity.UserEntity;
 import org.yalli.wah.dao.repository.EventRepository;
 import org.yalli.wah.dao.repository.UserRepository;
 import org.yalli.wah.mapper.EventMapper;
+import org.yalli.wah.model.dto.EventBulkSaveDto;
 import org.yalli.wah.model.dto.EventDetailDto;
 import org.yalli.wah.model.dto.EventDto;
 import org.yalli.wah.model.dto.EventSaveDto;
 import org.yalli.wah.model.dto.EventSearchRequest;
+import org.yalli.wah.model.dto.ScrollRequest;
+import org.yalli.wah.model.dto.SliceDto;
 import org.yalli.wah.model.enums.EventCategory;
+import org.yalli.wah.model.exception.InvalidInputException;
 import org.yalli.wah.model.exception.ResourceNotFoundException;
+import org.yalli.wah.util.KeysetPagination;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EventService {
+    private static final Map<String, KeysetPagination.SortKey<EventEntity>> SORT_KEYS = KeysetPagination.sortKeys(
+            new KeysetPagination.SortKey<>("date", EventEntity::getDate, LocalDate::parse),
+            new KeysetPagination.SortKey<>("createdAt", EventEntity::getCreatedAt, LocalDateTime::parse));
+
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final SavedEventResolver savedEventResolver;
+    private final AccessTokenService accessTokenService;
+    private final ApproximatePager approximatePager;
+    private final CountCache countCache;
+    private final EventListingCache eventListingCache;
+    private final SearchIndexService searchIndexService;
+    private final EventPopularityService eventPopularityService;
+
+    public Page<EventDto> getAllEvents(EventSearchRequest eventSearchRequest, Pageable pageable, String token,
+                                       boolean approximateTotal) {
+        Long userId = accessTokenService.resolveUserId(token).orElse(null);
+        boolean savedFilter = userId != null && eventSearchRequest.getCategory() != null
+                && eventSearchRequest.getCategory().contains(EventCategory.SAVED);
+        if (savedFilter || pageable.isUnpaged()) {
+            String domain = savedFilter ? CountCache.savedEvents(userId) : CountCache.EVENTS;
+            Page<EventEntity> events = approximatePager.findPage(EventEntity.class, eventRepository,
+                    buildSpecification(eventSearchRequest, userId), pageable, domain, eventSearchRequest.toString(),
+                    approximateTotal);
+            Set<Long> savedIds = savedEventResolver.resolveSavedIds(userId, events.getContent());
+            return events.map(it -> EventMapper.INSTANCE.mapEntityToDto(it, savedIds.contains(it.getId())));
+        }
 
-    public Page<EventDto> getAllEvents(EventSearchRequest eventSearchRequest, Pageable pageable, String token) {
-        UserEntity userEntity;
-        if (token != null) {
-            userEntity = userRepository.findByAccessToken(token).orElse(null);
-        } else {
-            userEntity = null;
+        Page<EventDto> shared = eventListingCache.get(eventSearchRequest, pageable, () ->
+                approximatePager.findPage(EventEntity.class, eventRepository,
+                                buildSpecification(eventSearchRequest, null), pageable, CountCache.EVENTS,
+                                eventSearchRequest.toString(), approximateTotal)
+                        .map(it -> EventMapper.INSTANCE.mapEntityToDto(it, false)));
+        Set<Long> savedIds = savedEventResolver.resolveSavedEventIds(userId,
+                shared.getContent().stream().map(EventDto::getId).toList());
+        if (savedIds.isEmpty()) {
+            return shared;
         }
-        Specification<EventEntity> spec = Specification.where((root, query, criteriaBuilder) -> {
+        return shared.map(it -> EventMapper.INSTANCE.withSaved(it, savedIds.contains(it.getId())));
+    }
+
+    public SliceDto<EventDto> scrollEvents(EventSearchRequest eventSearchRequest, ScrollRequest scrollRequest,
+                                           String token) {
+        Long userId = accessTokenService.resolveUserId(token).orElse(null);
+        SliceDto<EventEntity> events = KeysetPagination.scroll(eventRepository,
+                buildSpecification(eventSearchRequest, userId), scrollRequest, SORT_KEYS, EventEntity::getId);
+        Set<Long> savedIds = savedEventResolver.resolveSavedIds(userId, events.getContent());
+        return events.map(it -> EventMapper.INSTANCE.mapEntityToDto(it, savedIds.contains(it.getId())));
+    }
+
+    private Specification<EventEntity> buildSpecification(EventSearchRequest eventSearchRequest, Long userId) {
+        return Specification.where((root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
 
@@ -57,13 +108,17 @@ public class EventService {
                             break;
 
                         case POPULAR:
-                            categoryPredicates.add(criteriaBuilder.isTrue(root.get("isPopular")));
+                            Set<Long> topIds = eventPopularityService.getTopIds();
+                            categoryPredicates.add(topIds.isEmpty()
+                                    ? criteriaBuilder.isTrue(root.get("isPopular"))
+                                    : criteriaBuilder.or(criteriaBuilder.isTrue(root.get("isPopular")),
+                                    root.get("id").in(topIds)));
                             break;
 
                         case SAVED:
-                            if (userEntity != null) {
+                            if (userId != null) {
                                 Join<EventEntity, UserEntity> userJoin = root.join("users", JoinType.INNER);
-                                categoryPredicates.add(criteriaBuilder.equal(userJoin.get("id"), userEntity.getId()));
+                                categoryPredicates.add(criteriaBuilder.equal(userJoin.get("id"), userId));
                             }
                             break;
                     }
@@ -85,56 +140,71 @@ public class EventService {
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         });
-
-
-        return eventRepository.findAll(spec, pageable).map(it -> EventMapper.INSTANCE.mapEntityToDto(it,
-                userEntity == null ? null : userEntity.getId()));
     }
 
     public EventDetailDto getEventById(Long id) {
-        return EventMapper.INSTANCE.manEntityToEventDetailDto(eventRepository.findById(id).orElseThrow(() ->
+        var event = eventRepository.findById(id).orElseThrow(() ->
         {
             log.error("ActionLog.getEventById.error event not found with id {}", id);
             return new ResourceNotFoundException("EVENT_NOT_FOUND");
-        }));
+        });
+        eventPopularityService.recordView(event.getId());
+        return EventMapper.INSTANCE.manEntityToEventDetailDto(event);
     }
 
+    @Transactional
     public void saveEvent(EventSaveDto eventSaveDto) {
-        EventEntity eventEntity = eventRepository.findById(eventSaveDto.getId()).orElseThrow(() ->
-        {
-            log.error("ActionLog.findById.error event not found with id {}", eventSaveDto.getId());
-            return new ResourceNotFoundException("Event_NOT_FOUND");
-        });
-        UserEntity userEntity = userRepository.findById(eventSaveDto.getUserId()).orElseThrow(() -> {
-            log.error("ActionLog.findById.error user not found with id {}", eventSaveDto.getUserId());
-            return new ResourceNotFoundException("USER_NOT_FOUND");
-        });
-        List<EventEntity> userEvents = userEntity.getSavedEvents();
-        userEvents.add(eventEntity);
-        userEntity.setSavedEvents(userEvents);
-        userRepository.save(userEntity);
-
+        checkSaveTarget(eventSaveDto);
+        var inserted = eventRepository.insertSavedEvents(eventSaveDto.getUserId(), List.of(eventSaveDto.getId()));
+        eventPopularityService.recordSaves(eventSaveDto.getId(), inserted.size());
+        countCache.invalidate(CountCache.savedEvents(eventSaveDto.getUserId()));
     }
 
+    @Transactional
     public void unsaveEvent(EventSaveDto eventSaveDto) {
-        EventEntity eventEntity = eventRepository.findById(eventSaveDto.getId()).orElseThrow(() ->
-        {
+        checkSaveTarget(eventSaveDto);
+        int deleted = eventRepository.deleteSavedEvents(eventSaveDto.getUserId(), List.of(eventSaveDto.getId()));
+        eventPopularityService.recordSaves(eventSaveDto.getId(), -deleted);
+        countCache.invalidate(CountCache.savedEvents(eventSaveDto.getUserId()));
+    }
+
+    @Transactional
+    public void saveEvents(EventBulkSaveDto eventBulkSaveDto) {
+        log.info("ActionLog.saveEvents.start user {} events {}", eventBulkSaveDto.getUserId(),
+                eventBulkSaveDto.getEventIds());
+        if (eventBulkSaveDto.getEventIds() == null || eventBulkSaveDto.getEventIds().isEmpty()) {
+            throw new InvalidInputException("EVENT_IDS_REQUIRED");
+        }
+        checkUserExists(eventBulkSaveDto.getUserId());
+        var eventIds = new HashSet<>(eventBulkSaveDto.getEventIds());
+        eventRepository.findSavedEventIds(eventBulkSaveDto.getUserId(), eventIds).forEach(eventIds::remove);
+        List<Long> inserted = eventIds.isEmpty() ? List.of()
+                : eventRepository.insertSavedEvents(eventBulkSaveDto.getUserId(), eventIds);
+        inserted.forEach(eventId -> eventPopularityService.recordSaves(eventId, 1));
+        countCache.invalidate(CountCache.savedEvents(eventBulkSaveDto.getUserId()));
+        log.info("ActionLog.saveEvents.end user {} saved {}", eventBulkSaveDto.getUserId(), inserted.size());
+    }
+
+    private void checkSaveTarget(EventSaveDto eventSaveDto) {
+        if (!eventRepository.existsById(eventSaveDto.getId())) {
             log.error("ActionLog.findById.error event not found with id {}", eventSaveDto.getId());
-            return new ResourceNotFoundException("EVENT_NOT_FOUND");
-        });
-        UserEntity userEntity = userRepository.findById(eventSaveDto.getUserId()).orElseThrow(() ->
-        {
-            log.error("ActionLog.findById.error user not found with id {}", eventSaveDto.getUserId());
-            return new ResourceNotFoundException("USER_NOT_FOUND");
-        });
-        List<EventEntity> savedEntities = userEntity.getSavedEvents();
-        savedEntities.remove(eventEntity);
-        userEntity.setSavedEvents(savedEntities);
-        userRepository.save(userEntity);
+            throw new ResourceNotFoundException("EVENT_NOT_FOUND");
+        }
+        checkUserExists(eventSaveDto.getUserId());
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            log.error("ActionLog.findById.error user not found with id {}", userId);
+            throw new ResourceNotFoundException("USER_NOT_FOUND");
+        }
     }
 
     public void addEvent(EventDetailDto eventDetailDto) {
-        eventRepository.save(EventMapper.INSTANCE.mapDtoToEntity(eventDetailDto));
+        var event = eventRepository.save(EventMapper.INSTANCE.mapDtoToEntity(eventDetailDto));
+        searchIndexService.indexEvent(event);
+        countCache.invalidate(CountCache.EVENTS);
+        eventListingCache.invalidate();
     }
 }
 
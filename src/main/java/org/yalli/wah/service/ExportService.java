@@ -0,0 +1,98 @@
+package org.yalli.wah.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.yalli.wah.dao.repository.EventRepository;
+import org.yalli.wah.dao.repository.GroupRepository;
+import org.yalli.wah.dao.repository.MentorRepository;
+import org.yalli.wah.dao.repository.UserRepository;
+import org.yalli.wah.model.dto.EventExportRow;
+import org.yalli.wah.model.dto.GroupExportRow;
+import org.yalli.wah.model.dto.MentorExportRow;
+import org.yalli.wah.model.dto.UserExportRow;
+import org.yalli.wah.model.enums.ExportFormat;
+import org.yalli.wah.model.enums.ExportType;
+import org.yalli.wah.model.enums.MentorStatus;
+import org.yalli.wah.model.exception.PermissionException;
+import org.yalli.wah.util.SecretKeys;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+    private static final int FLUSH_EVERY = 1000;
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final EventRepository eventRepository;
+    private final GroupRepository groupRepository;
+    private final MentorRepository mentorRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${admin.export-key}")
+    private String exportKey;
+
+    public void checkExportKey(String key) {
+        if (!SecretKeys.matches(exportKey, key)) {
+            log.warn("ActionLog.checkExportKey.error invalid admin export key");
+            throw new PermissionException("INVALID_ADMIN_KEY");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void export(ExportType type, ExportFormat format, OutputStream outputStream) {
+        log.info("ActionLog.export.start type {} format {}", type, format);
+        long rows = switch (type) {
+            case EVENTS -> write(eventRepository.streamExportRows(), EventExportRow.class, format, outputStream);
+            case GROUPS -> write(groupRepository.streamExportRows(), GroupExportRow.class, format, outputStream);
+            case MENTORS -> write(mentorRepository.streamExportRows(MentorStatus.ACCEPTED), MentorExportRow.class,
+                    format, outputStream);
+            case USERS -> write(userRepository.streamConfirmedExportRows(), UserExportRow.class, format,
+                    outputStream);
+        };
+        log.info("ActionLog.export.end type {} format {} rows {}", type, format, rows);
+    }
+
+    private <T> long write(Stream<T> rows, Class<T> type, ExportFormat format, OutputStream outputStream) {
+        var output = new BufferedOutputStream(outputStream, 64 * 1024);
+        long count = 0;
+        try (rows; SequenceWriter writer = writerFor(type, format).writeValues(output)) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private ObjectWriter writerFor(Class<?> type, ExportFormat format) {
+        ObjectWriter writer = format == ExportFormat.CSV
+                ? CSV_MAPPER.writer(CSV_MAPPER.schemaFor(type).withHeader())
+                : objectMapper.writerFor(type).withRootValueSeparator("\n");
+        return writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+}
@@ -1,38 +1,80 @@
 package org.yalli.wah.service;
 
 import jakarta.persistence.criteria.Predicate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.yalli.wah.dao.entity.GroupEntity;
+import org.yalli.wah.dao.repository.GroupMemberRepository;
 import org.yalli.wah.dao.repository.GroupRepository;
+import org.yalli.wah.dao.repository.UserRepository;
 import org.yalli.wah.mapper.GroupMapper;
+import org.yalli.wah.model.dto.DeletionJobDto;
+import org.yalli.wah.model.dto.GalleryImagesDto;
 import org.yalli.wah.model.dto.GroupDto;
 import org.yalli.wah.model.dto.GroupLightDto;
 import org.yalli.wah.model.dto.GroupRequest;
 import org.yalli.wah.model.dto.GroupSearchRequest;
 import org.yalli.wah.model.dto.GroupUpdateDto;
+import org.yalli.wah.model.dto.ScrollRequest;
+import org.yalli.wah.model.dto.SliceDto;
 import org.yalli.wah.model.exception.InvalidInputException;
 import org.yalli.wah.model.exception.ResourceNotFoundException;
 import org.springframework.transaction.annotation.Transactional;
+import org.yalli.wah.util.KeysetPagination;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GroupService {
+    private static final Map<String, KeysetPagination.SortKey<GroupEntity>> SORT_KEYS = KeysetPagination.sortKeys(
+            new KeysetPagination.SortKey<>("title", GroupEntity::getTitle, Function.identity()),
+            new KeysetPagination.SortKey<>("createdAt", GroupEntity::getCreatedAt, LocalDateTime::parse));
+    static final List<String> LIGHT_COLUMNS = List.of("id", "title", "imageId", "country", "memberCount",
+            "category");
 
     private final GroupRepository groupRepository;
+    private final ObjectMapper objectMapper;
+    private final ApproximatePager approximatePager;
+    private final CountCache countCache;
+    private final SearchIndexService searchIndexService;
+    private final GroupMemberRepository groupMemberRepository;
+    private final UserRepository userRepository;
+    private final MembershipIndex membershipIndex;
+    private final DeletionJobService deletionJobService;
+    private final UserSummaryCache userSummaryCache;
+    @Value("${groups.rename-limit}")
+    private int renameLimit;
 
-    public Page<GroupLightDto> getAllGroupsLight(Pageable pageable, GroupSearchRequest groupSearchRequest) {
-        Specification<GroupEntity> specification = Specification.where((root, query, criteriaBuilder) -> {
+    public Page<GroupLightDto> getAllGroupsLight(Pageable pageable, GroupSearchRequest groupSearchRequest,
+                                                 boolean approximateTotal) {
+        return approximatePager.findProjectedPage(GroupEntity.class, GroupLightDto.class, LIGHT_COLUMNS,
+                groupRepository, searchSpecification(groupSearchRequest), pageable, CountCache.GROUPS,
+                String.valueOf(groupSearchRequest), approximateTotal);
+    }
+
+    public SliceDto<GroupLightDto> scrollGroupsLight(ScrollRequest scrollRequest, GroupSearchRequest groupSearchRequest) {
+        return KeysetPagination.scroll(groupRepository, searchSpecification(groupSearchRequest), scrollRequest,
+                SORT_KEYS, GroupEntity::getId).map(GroupMapper.INSTANCE::mapEntityToGroupLightDto);
+    }
+
+    private Specification<GroupEntity> searchSpecification(GroupSearchRequest groupSearchRequest) {
+        return Specification.where((root, query, criteriaBuilder) -> {
             if (groupSearchRequest != null) {
                 List<Predicate> predicates = new ArrayList<>();
                 if (groupSearchRequest.getCategory() != null && !groupSearchRequest.getCategory().isEmpty()) {
@@ -53,23 +95,34 @@ public class GroupService {
                 return criteriaBuilder.conjunction();
             }
         });
-        return groupRepository.findAll(specification, pageable).map(GroupMapper.INSTANCE::mapEntityToGroupLightDto);
     }
 
     public GroupDto getGroupById(Long id) {
-        return GroupMapper.INSTANCE.mapEntityToDto(getGroupEntityById(id));
+        return toGroupDto(getGroupEntityById(id));
     }
 
     public void createGroup(GroupRequest groupDto) {
         log.info("ActionLog.createGroup.start groupDto {}", groupDto);
-        groupRepository.save(GroupMapper.INSTANCE.mapDtoToEntity(groupDto));
+        var group = groupRepository.save(GroupMapper.INSTANCE.mapDtoToEntity(groupDto));
+        searchIndexService.indexGroup(group);
+        countCache.invalidate(CountCache.GROUPS);
         log.info("ActionLog.createGroup.start groupDto {}", groupDto);
     }
 
     public Page<GroupLightDto> getGroupsByUserId(Long userId, Pageable pageable) {
         log.info("ActionLog.getGroupsByUserId.start userId = {}", userId);
-        var groups = groupRepository.findByUserEntity_Id(userId, pageable);
+        var groups = groupRepository.findLightByUserId(userId, pageable);
         log.info("ActionLog.getGroupsByUserId.end userId = {}", userId);
+        return groups;
+    }
+
+    public SliceDto<GroupLightDto> scrollGroupsByUserId(Long userId, ScrollRequest scrollRequest) {
+        log.info("ActionLog.scrollGroupsByUserId.start userId = {}", userId);
+        Specification<GroupEntity> specification = (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("userEntity").get("id"), userId);
+        var groups = KeysetPagination.scroll(groupRepository, specification, scrollRequest, SORT_KEYS,
+                GroupEntity::getId);
+        log.info("ActionLog.scrollGroupsByUserId.end userId = {}", userId);
         return groups.map(GroupMapper.INSTANCE::mapEntityToGroupLightDto);
     }
 
@@ -80,31 +133,154 @@ public class GroupService {
             return new ResourceNotFoundException("GROUP_NOT_FOUND");
         });
         log.info("ActionLog.getGroupByUserId.end groupId = {}", groupId);
-        return GroupMapper.INSTANCE.mapEntityToDto(group);
+        return toGroupDto(group);
     }
 
+    private GroupDto toGroupDto(GroupEntity group) {
+        var groupDto = GroupMapper.INSTANCE.mapEntityToDto(group);
+        if (group.getUserEntity() != null) {
+            var ownerId = group.getUserEntity().getId();
+            groupDto.setOwner(userSummaryCache.getAll(List.of(ownerId)).get(ownerId));
+        }
+        return groupDto;
+    }
+
+    @Transactional
     public void updateGroup(Long id, GroupUpdateDto groupUpdateDto) {
         log.info("ActionLog.updateGroup.start groupId = {}", id);
         var group = getGroupEntityById(id);
-        log.info("ActionLog.updateGroup.info images {}", group.getGallery());
-        if (groupUpdateDto.getTitle() != null && !groupUpdateDto.getTitle().isBlank()) {
-            if (group.getRenameCount().intValue() <= 3) {
-                group.setRenameCount((short) (group.getRenameCount() + 1));
-            }
-            if (group.getRenameCount().intValue() > 1000) {
-                throw new InvalidInputException("GROUP_RENAME_LIMIT_EXCEEDED");
-            }
+        if (groupUpdateDto.getTitle() != null && !groupUpdateDto.getTitle().isBlank()
+                && !groupUpdateDto.getTitle().equals(group.getTitle())
+                && groupRepository.incrementRenameCount(id, renameLimit) == 0) {
+            log.error("ActionLog.updateGroup.error rename limit reached for group {}", id);
+            throw new InvalidInputException("GROUP_RENAME_LIMIT_EXCEEDED");
         }
         var updatedEntity = GroupMapper.INSTANCE.updateEntity(group, groupUpdateDto);
         groupRepository.save(updatedEntity);
+        searchIndexService.indexGroup(updatedEntity);
+        countCache.invalidate(CountCache.GROUPS);
         log.info("ActionLog.updateGroup.end updatedEntity {}", updatedEntity);
     }
 
     @Transactional
-    public void deleteGroup(List<Long> groupIds, Long userId) {
+    public void joinGroup(Long id, Long userId) {
+        log.info("ActionLog.joinGroup.start groupId = {} userId = {}", id, userId);
+        checkMembershipParties(id, userId);
+        if (groupMemberRepository.insertMember(id, userId) > 0) {
+            groupRepository.incrementMemberCount(id, 1);
+            membershipIndex.joined(id, userId);
+        }
+        log.info("ActionLog.joinGroup.end groupId = {} userId = {}", id, userId);
+    }
+
+    @Transactional
+    public void leaveGroup(Long id, Long userId) {
+        log.info("ActionLog.leaveGroup.start groupId = {} userId = {}", id, userId);
+        checkMembershipParties(id, userId);
+        if (groupMemberRepository.deleteMember(id, userId) > 0) {
+            groupRepository.incrementMemberCount(id, -1);
+            membershipIndex.left(id, userId);
+        }
+        log.info("ActionLog.leaveGroup.end groupId = {} userId = {}", id, userId);
+    }
+
+    public boolean isMember(Long id, Long userId) {
+        return membershipIndex.isMember(id, userId);
+    }
+
+    public Page<GroupLightDto> getJoinedGroups(Long userId, Pageable pageable) {
+        log.info("ActionLog.getJoinedGroups.start userId = {}", userId);
+        var page = pageOf(membershipIndex.getGroupIds(userId), pageable);
+        log.info("ActionLog.getJoinedGroups.end userId = {} total {}", userId, page.getTotalElements());
+        return page;
+    }
+
+    public Page<GroupLightDto> getMutualGroups(Long userId, Long otherUserId, Pageable pageable) {
+        log.info("ActionLog.getMutualGroups.start userId = {} otherUserId = {}", userId, otherUserId);
+        var page = pageOf(membershipIndex.getMutualGroupIds(userId, otherUserId), pageable);
+        log.info("ActionLog.getMutualGroups.end userId = {} otherUserId = {}", userId, otherUserId);
+        return page;
+    }
+
+    private Page<GroupLightDto> pageOf(List<Long> groupIds, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), groupIds.size());
+        int to = Math.min(from + pageable.getPageSize(), groupIds.size());
+        var groups = from == to ? List.<GroupLightDto>of() : groupRepository.findLightByIdIn(groupIds.subList(from, to));
+        return new PageImpl<>(groups, pageable, groupIds.size());
+    }
+
+    private void checkMembershipParties(Long id, Long userId) {
+        if (!groupRepository.existsById(id)) {
+            throw groupNotFound(id);
+        }
+        if (!userRepository.existsById(userId)) {
+            log.error("ActionLog.checkMembershipParties.error user not found with id {}", userId);
+            throw new ResourceNotFoundException("USER_NOT_FOUND");
+        }
+    }
+
+    public void addGalleryImages(Long id, GalleryImagesDto galleryImagesDto) {
+        log.info("ActionLog.addGalleryImages.start groupId = {}", id);
+        var images = checkImages(galleryImagesDto);
+        if (groupRepository.appendGalleryImages(id, toJson(images)) == 0) {
+            throw groupNotFound(id);
+        }
+        log.info("ActionLog.addGalleryImages.end groupId = {} added {}", id, images.size());
+    }
+
+    public void removeGalleryImage(Long id, String image) {
+        log.info("ActionLog.removeGalleryImage.start groupId = {}", id);
+        if (image == null || image.isBlank()) {
+            throw new InvalidInputException("GALLERY_IMAGE_REQUIRED");
+        }
+        if (groupRepository.removeGalleryImage(id, image) == 0 && !groupRepository.existsById(id)) {
+            throw groupNotFound(id);
+        }
+        log.info("ActionLog.removeGalleryImage.end groupId = {}", id);
+    }
+
+    public void reorderGallery(Long id, GalleryImagesDto galleryImagesDto) {
+        log.info("ActionLog.reorderGallery.start groupId = {}", id);
+        var images = checkImages(galleryImagesDto);
+        if (images.stream().distinct().count() != images.size()) {
+            throw new InvalidInputException("GALLERY_ORDER_MISMATCH");
+        }
+        if (groupRepository.reorderGallery(id, toJson(images)) == 0) {
+            if (!groupRepository.existsById(id)) {
+                throw groupNotFound(id);
+            }
+            throw new InvalidInputException("GALLERY_ORDER_MISMATCH");
+        }
+        log.info("ActionLog.reorderGallery.end groupId = {}", id);
+    }
+
+    private List<String> checkImages(GalleryImagesDto galleryImagesDto) {
+        if (galleryImagesDto == null || galleryImagesDto.getImages() == null || galleryImagesDto.getImages().isEmpty()
+                || galleryImagesDto.getImages().stream().anyMatch(image -> image == null || image.isBlank())) {
+            throw new InvalidInputException("GALLERY_IMAGES_REQUIRED");
+        }
+        return galleryImagesDto.getImages();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new InvalidInputException("INVALID_GALLERY");
+        }
+    }
+
+    private ResourceNotFoundException groupNotFound(Long id) {
+        log.error("ActionLog.getGroupById.error group not found with id {}", id);
+        return new ResourceNotFoundException("GROUP_NOT_FOUND");
+    }
+
+    @Transactional
+    public DeletionJobDto deleteGroup(List<Long> groupIds, Long userId) {
         log.info("ActionLog.deleteGroup.start groupId = {} user id {}", groupIds, userId);
-        groupRepository.deleteByUserEntity_IdAndIdIn(userId, groupIds);
-        log.info("ActionLog.deleteGroup.start groupId = {}", groupIds);
+        var job = deletionJobService.enqueueGroupDeletion(userId, groupIds);
+        log.info("ActionLog.deleteGroup.end groupId = {} job {}", groupIds, job.getId());
+        return job;
     }
 
     private GroupEntity getGroupEntityById(Long id) {
@@ -0,0 +1,240 @@
+package org.yalli.wah.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.yalli.wah.dao.entity.MailOutboxEntity;
+import org.yalli.wah.dao.repository.MailOutboxRepository;
+import org.yalli.wah.model.enums.MailStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class MailDispatcher {
+    private final MailOutboxRepository mailOutboxRepository;
+    private final JavaMailSenderImpl mailSender;
+    private final BlockingQueue<Long> queue;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final List<Thread> workers = new ArrayList<>();
+    private final Timer sendTimer;
+    private final Timer deliveryLagTimer;
+    private final Counter failureCounter;
+    private volatile boolean running = true;
+
+    @Value("${mail.dispatch.from}")
+    private String from;
+
+    @Value("${mail.dispatch.workers}")
+    private int workerCount;
+
+    @Value("${mail.dispatch.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${mail.dispatch.backoff-ms}")
+    private long backoffMs;
+
+    @Value("${mail.dispatch.max-backoff-ms}")
+    private long maxBackoffMs;
+
+    @Value("${mail.dispatch.idle-timeout-ms}")
+    private long idleTimeoutMs;
+
+    @Value("${mail.dispatch.poll-batch-size}")
+    private int pollBatchSize;
+
+    public MailDispatcher(MailOutboxRepository mailOutboxRepository,
+                          JavaMailSenderImpl mailSender,
+                          MeterRegistry meterRegistry,
+                          @Value("${mail.dispatch.queue-capacity}") int queueCapacity) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSender = mailSender;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        meterRegistry.gauge("mail.queue.depth", queue, BlockingQueue::size);
+        this.sendTimer = Timer.builder("mail.send.latency").register(meterRegistry);
+        this.deliveryLagTimer = Timer.builder("mail.delivery.lag").register(meterRegistry);
+        this.failureCounter = Counter.builder("mail.send.failures").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startWorkers() {
+        var builder = Thread.ofVirtual().name("mail-worker-", 0);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(builder.start(this::runWorker));
+        }
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    public void enqueue(MailOutboxEntity mail) {
+        mailOutboxRepository.save(mail);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(mail.getId());
+                }
+            });
+        } else {
+            offer(mail.getId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mail.dispatch.poll-interval-ms}")
+    public void pollOutbox() {
+        var now = LocalDateTime.now();
+        mailOutboxRepository.releaseStaleClaims(MailStatus.SENDING, MailStatus.PENDING,
+                now.minus(Duration.ofMillis(maxBackoffMs)));
+        mailOutboxRepository.findDueIds(MailStatus.PENDING, now, PageRequest.of(0, pollBatchSize))
+                .forEach(this::offer);
+    }
+
+    private void offer(Long id) {
+        if (queued.add(id) && !queue.offer(id)) {
+            queued.remove(id);
+            log.warn("ActionLog.mailDispatcher.warn queue full, mail {} left for outbox poll", id);
+        }
+    }
+
+    private void runWorker() {
+        Transport transport = null;
+        while (running) {
+            try {
+                Long id = queue.poll(idleTimeoutMs, TimeUnit.MILLISECONDS);
+                if (id == null) {
+                    transport = close(transport);
+                    continue;
+                }
+                queued.remove(id);
+                if (mailOutboxRepository.claim(id, MailStatus.PENDING, MailStatus.SENDING, LocalDateTime.now()) == 0) {
+                    continue;
+                }
+                var mail = mailOutboxRepository.findById(id).orElse(null);
+                if (mail == null) {
+                    continue;
+                }
+                transport = deliver(mail, transport);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("ActionLog.mailDispatcher.error worker failure", e);
+            }
+        }
+        close(transport);
+    }
+
+    private Transport deliver(MailOutboxEntity mail, Transport transport) {
+        // Once SMTP may have accepted the message the claim is never released, so a lost markSent leaves the
+        // row SENDING instead of sending it twice.
+        if (mailOutboxRepository.markAttempting(mail.getId(), MailStatus.SENDING, LocalDateTime.now()) == 0) {
+            return transport;
+        }
+        long start = System.nanoTime();
+        try {
+            if (transport == null || !transport.isConnected()) {
+                close(transport);
+                transport = connect();
+            }
+            var message = toMimeMessage(mail);
+            transport.sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException | RuntimeException e) {
+            failureCounter.increment();
+            scheduleRetry(mail, e);
+            return close(transport);
+        }
+        sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (mail.getCreatedAt() != null) {
+            deliveryLagTimer.record(Duration.between(mail.getCreatedAt(), LocalDateTime.now()));
+        }
+        markSent(mail);
+        return transport;
+    }
+
+    private void markSent(MailOutboxEntity mail) {
+        try {
+            mailOutboxRepository.markSent(mail.getId(), MailStatus.SENDING, MailStatus.SENT, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("ActionLog.mailDispatcher.error mail {} was sent but not marked, left SENDING",
+                    mail.getId(), e);
+        }
+    }
+
+    private void scheduleRetry(MailOutboxEntity mail, Exception e) {
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        mail.setLastError(StringUtils.abbreviate(e.getMessage(), 1000));
+        mail.setAttemptingAt(null);
+        if (attempts >= maxAttempts) {
+            mail.setStatus(MailStatus.FAILED);
+            log.error("ActionLog.mailDispatcher.error mail {} to {} failed after {} attempts", mail.getId(),
+                    mail.getRecipient(), attempts, e);
+        } else {
+            long delay = Math.min(maxBackoffMs, backoffMs << Math.min(attempts - 1, 20));
+            mail.setStatus(MailStatus.PENDING);
+            mail.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(delay)));
+            log.warn("ActionLog.mailDispatcher.warn mail {} attempt {} failed, retry in {} ms", mail.getId(),
+                    attempts, delay);
+        }
+        mailOutboxRepository.save(mail);
+    }
+
+    private Transport connect() throws MessagingException {
+        var protocol = mailSender.getProtocol() == null ? "smtp" : mailSender.getProtocol();
+        var transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+                mailSender.getPassword());
+        return transport;
+    }
+
+    private Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.warn("ActionLog.mailDispatcher.warn failed to close transport", e);
+            }
+        }
+        return null;
+    }
+
+    private MimeMessage toMimeMessage(MailOutboxEntity mail) throws MessagingException {
+        var message = new MimeMessage(mailSender.getSession());
+        message.setFrom(new InternetAddress(from));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(mail.getRecipient()));
+        message.setSubject(mail.getSubject(), "UTF-8");
+        message.setText(mail.getBody(), "UTF-8");
+        message.setSentDate(new Date());
+        message.saveChanges();
+        return message;
+    }
+}
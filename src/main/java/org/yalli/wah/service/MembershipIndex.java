@@ -0,0 +1,267 @@
+package org.yalli.wah.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.yalli.wah.dao.entity.GroupMemberId;
+import org.yalli.wah.dao.repository.GroupMemberRepository;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+@Component
+@Slf4j
+public class MembershipIndex {
+    private static final String LOG_CHANGE_SQL = "INSERT INTO membership_changes (group_id, user_id) VALUES (?, ?)";
+    private static final String CHANGES_SQL = "SELECT c.group_id, c.user_id, m.group_id IS NOT NULL AS member " +
+            "FROM membership_changes c " +
+            "LEFT JOIN group_members m ON m.group_id = c.group_id AND m.user_id = c.user_id " +
+            "WHERE c.created_at > now() - make_interval(secs => ?) ORDER BY c.id";
+    private static final String PURGE_SQL = "DELETE FROM membership_changes " +
+            "WHERE created_at < now() - make_interval(secs => ?)";
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final GroupMemberRepository groupMemberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    @Value("${groups.membership.sync-lookback-seconds}")
+    private long syncLookbackSeconds;
+    private Map<Integer, RoaringBitmap> membersByGroup = new HashMap<>();
+    private Map<Integer, RoaringBitmap> groupsByUser = new HashMap<>();
+    private List<Consumer<MembershipIndex>> journal;
+    private volatile boolean ready;
+
+    public MembershipIndex(GroupMemberRepository groupMemberRepository, TransactionTemplate transactionTemplate,
+                           JdbcTemplate jdbcTemplate) {
+        this.groupMemberRepository = groupMemberRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isMember(Long groupId, Long userId) {
+        if (!ready) {
+            return groupMemberRepository.existsById(new GroupMemberId(groupId, userId));
+        }
+        lock.readLock().lock();
+        try {
+            var members = membersByGroup.get(toKey(groupId));
+            return members != null && members.contains(toKey(userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> getGroupIds(Long userId) {
+        if (!ready) {
+            return groupMemberRepository.findGroupIdsByUserId(userId);
+        }
+        lock.readLock().lock();
+        try {
+            return toIds(groupsByUser.get(toKey(userId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> getMutualGroupIds(Long userId, Long otherUserId) {
+        if (!ready) {
+            return groupMemberRepository.findMutualGroupIds(userId, otherUserId);
+        }
+        lock.readLock().lock();
+        try {
+            var groups = groupsByUser.get(toKey(userId));
+            var otherGroups = groupsByUser.get(toKey(otherUserId));
+            if (groups == null || otherGroups == null) {
+                return List.of();
+            }
+            return toIds(RoaringBitmap.and(groups, otherGroups));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void joined(Long groupId, Long userId) {
+        jdbcTemplate.update(LOG_CHANGE_SQL, groupId, userId);
+        afterCommit(index -> index.add(toKey(groupId), toKey(userId)));
+    }
+
+    public void left(Long groupId, Long userId) {
+        jdbcTemplate.update(LOG_CHANGE_SQL, groupId, userId);
+        afterCommit(index -> index.remove(toKey(groupId), toKey(userId)));
+    }
+
+    public void groupsDeleted(Collection<Long> groupIds) {
+        jdbcTemplate.batchUpdate(LOG_CHANGE_SQL, groupIds, groupIds.size(), (ps, groupId) -> {
+            ps.setLong(1, groupId);
+            ps.setNull(2, Types.BIGINT);
+        });
+        var keys = groupIds.stream().map(MembershipIndex::toKey).toList();
+        afterCommit(index -> keys.forEach(index::removeGroup));
+    }
+
+    public void userDeleted(Long userId) {
+        jdbcTemplate.update(LOG_CHANGE_SQL, null, userId);
+        int key = toKey(userId);
+        afterCommit(index -> index.removeUser(key));
+    }
+
+    // Changes committed on other instances. Pairs are re-read from group_members rather than replayed, so
+    // overlapping windows and out-of-order commits converge on the current membership.
+    @Scheduled(fixedDelayString = "${groups.membership.sync-interval-ms}")
+    public void syncChanges() {
+        if (!ready) {
+            return;
+        }
+        List<Consumer<MembershipIndex>> changes = jdbcTemplate.query(CHANGES_SQL, (rs, rowNum) -> {
+            Long groupId = rs.getObject("group_id", Long.class);
+            Long userId = rs.getObject("user_id", Long.class);
+            boolean member = rs.getBoolean("member");
+            if (userId == null) {
+                int groupKey = toKey(groupId);
+                return index -> index.removeGroup(groupKey);
+            }
+            int userKey = toKey(userId);
+            if (groupId == null) {
+                return index -> index.removeUser(userKey);
+            }
+            int groupKey = toKey(groupId);
+            return member ? index -> index.add(groupKey, userKey) : index -> index.remove(groupKey, userKey);
+        }, syncLookbackSeconds);
+        changes.forEach(this::apply);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${groups.membership.rebuild-interval-ms}",
+            fixedDelayString = "${groups.membership.rebuild-interval-ms}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Integer, RoaringBitmap> members = new HashMap<>();
+        Map<Integer, RoaringBitmap> groups = new HashMap<>();
+        try {
+            transactionTemplate.execute(status -> {
+                try (var ids = groupMemberRepository.streamAllIds()) {
+                    ids.forEach(id -> {
+                        int groupKey = toKey(id.getGroupId());
+                        int userKey = toKey(id.getUserId());
+                        members.computeIfAbsent(groupKey, key -> new RoaringBitmap()).add(userKey);
+                        groups.computeIfAbsent(userKey, key -> new RoaringBitmap()).add(groupKey);
+                    });
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("ActionLog.rebuildMembershipIndex.error", e);
+            lock.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        members.values().forEach(RoaringBitmap::runOptimize);
+        groups.values().forEach(RoaringBitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            var changes = journal;
+            journal = null;
+            membersByGroup = members;
+            groupsByUser = groups;
+            changes.forEach(change -> change.accept(this));
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        int purged = jdbcTemplate.update(PURGE_SQL, syncLookbackSeconds);
+        log.info("ActionLog.rebuildMembershipIndex groups {} users {} purged changes {}", members.size(),
+                groups.size(), purged);
+    }
+
+    private void afterCommit(Consumer<MembershipIndex> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<MembershipIndex> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(this);
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(int groupKey, int userKey) {
+        membersByGroup.computeIfAbsent(groupKey, key -> new RoaringBitmap()).add(userKey);
+        groupsByUser.computeIfAbsent(userKey, key -> new RoaringBitmap()).add(groupKey);
+    }
+
+    private void remove(int groupKey, int userKey) {
+        var members = membersByGroup.get(groupKey);
+        if (members != null) {
+            members.remove(userKey);
+        }
+        var groups = groupsByUser.get(userKey);
+        if (groups != null) {
+            groups.remove(groupKey);
+        }
+    }
+
+    private void removeGroup(int groupKey) {
+        var members = membersByGroup.remove(groupKey);
+        if (members != null) {
+            members.forEach((int userKey) -> remove(groupKey, userKey));
+        }
+    }
+
+    private void removeUser(int userKey) {
+        var groups = groupsByUser.remove(userKey);
+        if (groups != null) {
+            groups.forEach((int groupKey) -> remove(groupKey, userKey));
+        }
+    }
+
+    private static List<Long> toIds(RoaringBitmap bitmap) {
+        if (bitmap == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(bitmap.getCardinality());
+        bitmap.forEach((int id) -> ids.add((long) id));
+        return ids;
+    }
+
+    private static int toKey(Long id) {
+        return Math.toIntExact(id);
+    }
+}
@@ -0,0 +1,244 @@
+package org.yalli.wah.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.yalli.wah.dao.repository.MentorRepository;
+import org.yalli.wah.model.dto.MentorIndexRow;
+import org.yalli.wah.model.dto.MentorSearchDto;
+import org.yalli.wah.model.dto.MentorSearchRequest;
+import org.yalli.wah.model.enums.MentorCategory;
+import org.yalli.wah.model.enums.MentorStatus;
+import org.yalli.wah.model.exception.InvalidInputException;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class MentorIndex {
+    private static final int GRAM = 3;
+    private static final String LOG_CHANGE_SQL = "INSERT INTO mentor_changes (mentor_id) VALUES (?)";
+    private static final String CHANGES_SQL = "SELECT id, mentor_id FROM mentor_changes " +
+            "WHERE created_at > now() - make_interval(secs => ?)";
+    private static final String PURGE_SQL = "DELETE FROM mentor_changes " +
+            "WHERE created_at < now() - make_interval(secs => ?)";
+
+    private final MentorRepository mentorRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Snapshot snapshot;
+    private volatile Set<Long> appliedChangeIds = Set.of();
+    @Value("${mentors.index.sync-lookback-seconds}")
+    private long syncLookbackSeconds;
+
+    public MentorIndex(MentorRepository mentorRepository, JdbcTemplate jdbcTemplate) {
+        this.mentorRepository = mentorRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public Page<MentorSearchDto> search(MentorSearchRequest request, Pageable pageable) {
+        var current = snapshot;
+        var matches = current.filter(request);
+        int total = matches.cardinality();
+        List<Integer> positions = new ArrayList<>(total);
+        matches.stream().forEach(positions::add);
+        var sort = pageable.getSort();
+        if (sort.isSorted()) {
+            var comparator = comparator(sort);
+            positions.sort(Comparator.comparing(current.rows()::get, comparator));
+        }
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), total);
+            positions = positions.subList(from, Math.min(from + pageable.getPageSize(), total));
+        }
+        var content = positions.stream().map(position -> toDto(current.rows().get(position))).toList();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    public void refresh(Long mentorId) {
+        jdbcTemplate.update(LOG_CHANGE_SQL, mentorId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload(Set.of(mentorId));
+                }
+            });
+        } else {
+            reload(Set.of(mentorId));
+        }
+    }
+
+    // Changes committed on other instances. A change row is only visible once its transaction committed, so
+    // reloading the mentor from the database the first time the row is seen picks up that write.
+    @Scheduled(fixedDelayString = "${mentors.index.sync-interval-ms}")
+    public void syncChanges() {
+        if (snapshot == null) {
+            return;
+        }
+        Map<Long, Long> changes = new HashMap<>();
+        jdbcTemplate.query(CHANGES_SQL, rs -> {
+            changes.put(rs.getLong("id"), rs.getLong("mentor_id"));
+        }, syncLookbackSeconds);
+        var applied = appliedChangeIds;
+        Set<Long> mentorIds = new HashSet<>();
+        changes.forEach((changeId, mentorId) -> {
+            if (!applied.contains(changeId)) {
+                mentorIds.add(mentorId);
+            }
+        });
+        if (!mentorIds.isEmpty()) {
+            reload(mentorIds);
+        }
+        appliedChangeIds = changes.keySet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${mentors.index.rebuild-interval-ms}",
+            fixedDelayString = "${mentors.index.rebuild-interval-ms}")
+    public synchronized void rebuild() {
+        var rows = mentorRepository.findIndexRows(MentorStatus.ACCEPTED);
+        snapshot = Snapshot.of(rows);
+        int purged = jdbcTemplate.update(PURGE_SQL, syncLookbackSeconds);
+        log.info("ActionLog.rebuildMentorIndex mentors {} purged changes {}", rows.size(), purged);
+    }
+
+    private synchronized void reload(Set<Long> mentorIds) {
+        var current = snapshot;
+        if (current == null) {
+            return;
+        }
+        List<MentorIndexRow> rows = new ArrayList<>(current.rows().size() + mentorIds.size());
+        current.rows().stream().filter(mentor -> !mentorIds.contains(mentor.getId())).forEach(rows::add);
+        for (Long mentorId : mentorIds) {
+            mentorRepository.findIndexRow(mentorId)
+                    .filter(mentor -> mentor.getMentorStatus() == MentorStatus.ACCEPTED)
+                    .ifPresent(rows::add);
+        }
+        rows.sort(Comparator.comparing(MentorIndexRow::getId));
+        snapshot = Snapshot.of(rows);
+    }
+
+    private static MentorSearchDto toDto(MentorIndexRow row) {
+        return new MentorSearchDto(row.getId(), row.getFullName(), row.getCountry(), row.getMentorCategory(),
+                row.getProfilePicture(), row.getRatingAverage(), row.getRatingCount());
+    }
+
+    private static Comparator<MentorIndexRow> comparator(Sort sort) {
+        Comparator<MentorIndexRow> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<MentorIndexRow> next = switch (order.getProperty()) {
+                case "id" -> nullable(MentorIndexRow::getId);
+                case "fullName" -> nullable(MentorIndexRow::getFullName);
+                case "country" -> nullable(MentorIndexRow::getCountry);
+                case "createdAt" -> nullable(MentorIndexRow::getCreatedAt);
+                case "ratingAverage" -> nullable(MentorIndexRow::getRatingAverage);
+                case "ratingCount" -> nullable(MentorIndexRow::getRatingCount);
+                default -> throw new InvalidInputException("INVALID_SORT_FIELD");
+            };
+            next = order.isDescending() ? next.reversed() : next;
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator.thenComparing(MentorIndexRow::getId);
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<MentorIndexRow> nullable(
+            Function<MentorIndexRow, T> key) {
+        return Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private record Snapshot(List<MentorIndexRow> rows, List<String> names, Map<MentorCategory, BitSet> categories,
+                            Map<String, BitSet> countries, Map<String, BitSet> grams) {
+        static Snapshot of(List<MentorIndexRow> rows) {
+            List<String> names = new ArrayList<>(rows.size());
+            Map<MentorCategory, BitSet> categories = new EnumMap<>(MentorCategory.class);
+            Map<String, BitSet> countries = new HashMap<>();
+            Map<String, BitSet> grams = new HashMap<>();
+            for (int position = 0; position < rows.size(); position++) {
+                var row = rows.get(position);
+                var name = normalize(row.getFullName());
+                names.add(name);
+                if (row.getMentorCategory() != null) {
+                    categories.computeIfAbsent(row.getMentorCategory(), category -> new BitSet()).set(position);
+                }
+                if (row.getCountry() != null) {
+                    countries.computeIfAbsent(row.getCountry(), country -> new BitSet()).set(position);
+                }
+                for (String gram : grams(name)) {
+                    grams.computeIfAbsent(gram, key -> new BitSet()).set(position);
+                }
+            }
+            return new Snapshot(List.copyOf(rows), List.copyOf(names), categories, countries, grams);
+        }
+
+        BitSet filter(MentorSearchRequest request) {
+            var result = new BitSet(rows.size());
+            result.set(0, rows.size());
+            if (request.getCategory() != null && !request.getCategory().isEmpty()) {
+                result.and(union(request.getCategory(), categories));
+            }
+            if (request.getCountry() != null && !request.getCountry().isEmpty()) {
+                result.and(union(request.getCountry(), countries));
+            }
+            var name = normalize(request.getFullName());
+            if (!name.isEmpty()) {
+                for (String gram : grams(name)) {
+                    var positions = grams.get(gram);
+                    if (positions == null) {
+                        return new BitSet();
+                    }
+                    result.and(positions);
+                }
+                for (int position = result.nextSetBit(0); position >= 0; position = result.nextSetBit(position + 1)) {
+                    if (!names.get(position).contains(name)) {
+                        result.clear(position);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static <K> BitSet union(Collection<K> keys, Map<K, BitSet> bitsets) {
+            var union = new BitSet();
+            keys.stream().filter(Objects::nonNull).map(bitsets::get).filter(Objects::nonNull).forEach(union::or);
+            return union;
+        }
+    }
+}
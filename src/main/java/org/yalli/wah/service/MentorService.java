@@ -5,61 +5,139 @@ import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.yalli.wah.dao.entity.CommentEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.yalli.wah.dao.entity.GroupEntity;
 import org.yalli.wah.dao.entity.MentorEntity;
 import org.yalli.wah.dao.repository.CommentRepository;
 import org.yalli.wah.dao.repository.MentorRepository;
 import org.yalli.wah.mapper.MentorMapper;
+import org.yalli.wah.model.dto.CommentDto;
 import org.yalli.wah.model.dto.MentorDetailDto;
 import org.yalli.wah.model.dto.MentorSearchRequest;
 import org.yalli.wah.model.dto.MentorSearchDto;
+import org.yalli.wah.model.dto.ScrollRequest;
+import org.yalli.wah.model.dto.SliceDto;
 import org.yalli.wah.model.enums.MentorStatus;
+import org.yalli.wah.model.exception.InvalidInputException;
 import org.yalli.wah.model.exception.ResourceNotFoundException;
+import org.yalli.wah.util.KeysetCursor;
+import org.yalli.wah.util.KeysetPagination;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class MentorService {
+    private static final Map<String, KeysetPagination.SortKey<MentorEntity>> SORT_KEYS = KeysetPagination.sortKeys(
+            new KeysetPagination.SortKey<>("fullName", MentorEntity::getFullName, Function.identity()),
+            new KeysetPagination.SortKey<>("createdAt", MentorEntity::getCreatedAt, LocalDateTime::parse),
+            new KeysetPagination.SortKey<>("ratingAverage", MentorEntity::getRatingAverage, Double::valueOf),
+            new KeysetPagination.SortKey<>("ratingCount", MentorEntity::getRatingCount, Integer::valueOf));
+    private static final List<String> SEARCH_COLUMNS = List.of("id", "fullName", "country", "mentorCategory",
+            "profilePicture", "ratingAverage", "ratingCount");
+    private static final int MAX_COMMENT_PAGE_SIZE = 100;
     private static final Logger log = LoggerFactory.getLogger(MentorService.class);
     private final MentorRepository mentorRepository;
     private final CommentRepository commentRepository;
+    private final ApproximatePager approximatePager;
+    private final MentorIndex mentorIndex;
+    private final SearchIndexService searchIndexService;
+    private final CountCache countCache;
+    @Value("${mentors.detail-comments}")
+    private int detailComments;
 
-    public Page<MentorSearchDto> searchMentors(MentorSearchRequest mentorSearchRequest, Pageable pageable) {
-        Specification<MentorEntity> specification = Specification.where((root, query, criteriaBuilder) -> {
+    public Page<MentorSearchDto> searchMentors(MentorSearchRequest mentorSearchRequest, Pageable pageable,
+                                               boolean approximateTotal) {
+        if (mentorIndex.isReady()) {
+            return mentorIndex.search(mentorSearchRequest, pageable);
+        }
+        return approximatePager.findProjectedPage(MentorEntity.class, MentorSearchDto.class, SEARCH_COLUMNS,
+                mentorRepository, searchSpecification(mentorSearchRequest), pageable, CountCache.MENTORS,
+                mentorSearchRequest.toString(), approximateTotal);
+    }
+
+    public SliceDto<MentorSearchDto> scrollMentors(MentorSearchRequest mentorSearchRequest,
+                                                   ScrollRequest scrollRequest) {
+        return KeysetPagination.scroll(mentorRepository, searchSpecification(mentorSearchRequest), scrollRequest,
+                SORT_KEYS, MentorEntity::getId).map(MentorMapper.INSTANCE::mapMentorEntityToMentorSearchDto);
+    }
+
+    private Specification<MentorEntity> searchSpecification(MentorSearchRequest mentorSearchRequest) {
+        return Specification.where((root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
             if (mentorSearchRequest.getFullName() != null && !mentorSearchRequest.getFullName().isEmpty()) {
-                predicates.add(criteriaBuilder.like(root.get("fullName"), "%" + mentorSearchRequest.getFullName() + "%"));
+                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("fullName")),
+                        "%" + mentorSearchRequest.getFullName().trim().toLowerCase(Locale.ROOT) + "%"));
             }
             if (mentorSearchRequest.getCategory() != null && !mentorSearchRequest.getCategory().isEmpty()) {
-                predicates.add(root.get("category").in(mentorSearchRequest.getCategory()));
+                predicates.add(root.get("mentorCategory").in(mentorSearchRequest.getCategory()));
             }
             if (mentorSearchRequest.getCountry() != null && !mentorSearchRequest.getCountry().isEmpty()) {
-                predicates.add(
-                        criteriaBuilder.equal(root.get("country"), mentorSearchRequest.getCountry())
-                );
+                predicates.add(root.get("country").in(mentorSearchRequest.getCountry()));
             }
             predicates.add(criteriaBuilder.equal(root.get("mentorStatus"), MentorStatus.ACCEPTED));
             predicates.add(criteriaBuilder.conjunction());
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         });
-        return mentorRepository.findAll(specification, pageable).map(MentorMapper.INSTANCE::mapMentorEntityToMentorSearchDto);
+    }
+
+    @Transactional
+    public void updateStatus(Long id, MentorStatus status) {
+        log.info("ActionLog.updateStatus.start id {} status {}", id, status);
+        var mentor = mentorRepository.findById(id).orElseThrow(()
+                -> new ResourceNotFoundException("MENTOR_ENTITY_NOT_FOUND"));
+        mentor.setMentorStatus(status);
+        mentorRepository.save(mentor);
+        searchIndexService.indexMentor(mentor);
+        countCache.invalidate(CountCache.MENTORS);
+        mentorIndex.refresh(id);
+        log.info("ActionLog.updateStatus.end id {} status {}", id, status);
     }
 
     public MentorDetailDto getMentorById(Long id) {
-        commentRepository.findAllByMentorId(id);
         var mentor = mentorRepository.findById(id).orElseThrow(()
                 -> new ResourceNotFoundException("MENTOR_ENTITY_NOT_FOUND"));
-        return MentorMapper.INSTANCE.mapMentorToMentorDetailDto(mentor, calcAverageRating(mentor.getComments()));
+        var latestComments = commentRepository.findLatestByMentorId(id, PageRequest.of(0, detailComments));
+        return MentorMapper.INSTANCE.mapMentorToMentorDetailDto(mentor, latestComments);
+    }
+
+    public SliceDto<CommentDto> getComments(Long id, String cursor, Integer size) {
+        int limit = Math.max(1, Math.min(MAX_COMMENT_PAGE_SIZE, size == null ? 20 : size));
+        var keyset = KeysetCursor.decode(cursor);
+        var page = PageRequest.of(0, limit + 1);
+        List<CommentDto> rows = keyset == null
+                ? commentRepository.findLatestByMentorId(id, page)
+                : commentRepository.findByMentorIdBefore(id, parseCreatedAt(keyset), keyset.id(), page);
+        boolean hasNext = rows.size() > limit;
+        List<CommentDto> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            var last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.getId(), String.valueOf(last.getCreatedAt())).encode();
+        }
+        return new SliceDto<>(content, nextCursor, hasNext);
     }
 
-    private Double calcAverageRating(List<CommentEntity> comments) {
-        return comments.stream().map(CommentEntity::getRate).mapToInt(Integer::intValue).average().orElse(0);
+    private LocalDateTime parseCreatedAt(KeysetCursor cursor) {
+        if (cursor.value() == null) {
+            throw new InvalidInputException("INVALID_CURSOR");
+        }
+        try {
+            return LocalDateTime.parse(cursor.value());
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputException("INVALID_CURSOR");
+        }
     }
 }
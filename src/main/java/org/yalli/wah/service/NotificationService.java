@@ -2,29 +2,128 @@ package org.yalli.wah.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.yalli.wah.dao.entity.NotificationEntity;
 import org.yalli.wah.dao.repository.NotificationRepository;
 import org.yalli.wah.mapper.NotificationMapper;
 import org.yalli.wah.model.dto.NotificationDto;
-import org.yalli.wah.model.exception.ResourceNotFoundException;
-
+import org.yalli.wah.model.dto.NotificationSendDto;
+import org.yalli.wah.model.dto.SliceDto;
+import org.yalli.wah.model.enums.NotificationTarget;
+import org.yalli.wah.model.exception.InvalidInputException;
+import org.yalli.wah.util.KeysetCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class NotificationService {
-
+    private static final String MERGED_SQL = "(SELECT n.id, n.content, n.detail, n.sent_time FROM notifications n " +
+            "WHERE n.target = 'ALL' AND n.id > ? AND n.id < ? ORDER BY n.id DESC LIMIT ?) " +
+            "UNION ALL (SELECT n.id, n.content, n.detail, n.sent_time FROM notifications n " +
+            "WHERE n.target = 'COUNTRY' AND n.target_country = (SELECT u.country FROM users u WHERE u.id = ?) " +
+            "AND n.id > ? AND n.id < ? " +
+            "ORDER BY n.id DESC LIMIT ?) " +
+            "UNION ALL (SELECT n.id, n.content, n.detail, n.sent_time FROM user_notifications un " +
+            "JOIN notifications n ON n.id = un.notifications_id " +
+            "WHERE un.user_id = ? AND un.notifications_id > ? AND un.notifications_id < ? " +
+            "ORDER BY un.notifications_id DESC LIMIT ?)";
+    private static final String INBOX_SQL = "SELECT id, content, detail, sent_time FROM (" + MERGED_SQL +
+            ") inbox ORDER BY id DESC LIMIT ?";
+    private static final String UNREAD_SQL = "SELECT count(*) FROM (" + MERGED_SQL + ") inbox";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_UNREAD_COUNT = 99;
 
     private final NotificationRepository notificationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserSummaryCache userSummaryCache;
+
+    public SliceDto<NotificationDto> getInbox(Long userId, String cursor, Integer size) {
+        int limit = Math.max(1, Math.min(MAX_PAGE_SIZE, size == null ? 20 : size));
+        var keyset = KeysetCursor.decode(cursor);
+        long before = keyset == null ? Long.MAX_VALUE : keyset.id();
+        userSummaryCache.get(userId);
+        long lastReadId = notificationRepository.findLastReadId(userId);
+        List<NotificationDto> rows = jdbcTemplate.query(INBOX_SQL, (rs, rowNum) -> new NotificationDto(
+                        rs.getLong("id"), rs.getString("content"), rs.getString("detail"),
+                        rs.getObject("sent_time", LocalDateTime.class), rs.getLong("id") <= lastReadId),
+                mergedArguments(userId, 0L, before, limit + 1, limit + 1));
+        boolean hasNext = rows.size() > limit;
+        List<NotificationDto> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? new KeysetCursor(content.get(content.size() - 1).getId(), null).encode() : null;
+        return new SliceDto<>(content, nextCursor, hasNext);
+    }
 
-    public List<NotificationDto> getAll(Long id, String country) {
-        return NotificationMapper.INSTANCE.toNotificationDtoList(notificationRepository
-                .findNotificationsForUser(id, true,country)
-                .orElseThrow(() ->
-                new ResourceNotFoundException("NOTIFICATION_NOT_FOUND")));
+    public long getUnreadCount(Long userId) {
+        userSummaryCache.get(userId);
+        long lastReadId = notificationRepository.findLastReadId(userId);
+        Long unread = jdbcTemplate.queryForObject(UNREAD_SQL, Long.class,
+                mergedArguments(userId, lastReadId, Long.MAX_VALUE, MAX_UNREAD_COUNT));
+        return Math.min(MAX_UNREAD_COUNT, unread == null ? 0 : unread);
     }
 
+    @Transactional
+    public void markRead(Long userId, Long lastReadId) {
+        log.info("ActionLog.markRead.start user {} lastReadId {}", userId, lastReadId);
+        if (lastReadId == null || lastReadId < 0) {
+            throw new InvalidInputException("INVALID_NOTIFICATION_ID");
+        }
+        userSummaryCache.get(userId);
+        notificationRepository.markRead(userId, lastReadId);
+        log.info("ActionLog.markRead.end user {} lastReadId {}", userId, lastReadId);
+    }
+
+    @Transactional
+    public NotificationDto send(NotificationSendDto notificationSendDto) {
+        log.info("ActionLog.sendNotification.start target {}", notificationSendDto.getTarget());
+        if (notificationSendDto.getContent() == null || notificationSendDto.getContent().isBlank()) {
+            throw new InvalidInputException("NOTIFICATION_CONTENT_REQUIRED");
+        }
+        var target = notificationSendDto.getTarget();
+        if (target == null) {
+            throw new InvalidInputException("NOTIFICATION_TARGET_REQUIRED");
+        }
+        var notification = new NotificationEntity();
+        notification.setContent(notificationSendDto.getContent());
+        notification.setDetail(notificationSendDto.getDetail());
+        notification.setTarget(target);
+        notification.setForAllUsers(target == NotificationTarget.ALL);
+        List<Long> userIds = List.of();
+        switch (target) {
+            case COUNTRY -> {
+                if (notificationSendDto.getCountry() == null || notificationSendDto.getCountry().isBlank()) {
+                    throw new InvalidInputException("NOTIFICATION_COUNTRY_REQUIRED");
+                }
+                notification.setTargetCountry(notificationSendDto.getCountry());
+            }
+            case USERS -> {
+                userIds = notificationSendDto.getUserIds() == null ? List.of()
+                        : notificationSendDto.getUserIds().stream().filter(Objects::nonNull).distinct().toList();
+                if (userIds.isEmpty()) {
+                    throw new InvalidInputException("NOTIFICATION_RECIPIENTS_REQUIRED");
+                }
+            }
+            case ALL -> {
+            }
+        }
+        notification = notificationRepository.save(notification);
+        int recipients = userIds.isEmpty() ? 0 : notificationRepository.addRecipients(notification.getId(), userIds);
+        log.info("ActionLog.sendNotification.end id {} target {} direct recipients {}", notification.getId(),
+                target, recipients);
+        return NotificationMapper.INSTANCE.toNotificationDto(notification);
+    }
+
+    private static Object[] mergedArguments(Long userId, long after, long before, int branchLimit, Object... tail) {
+        Object[] head = {after, before, branchLimit, userId, after, before, branchLimit,
+                userId, after, before, branchLimit};
+        Object[] arguments = new Object[head.length + tail.length];
+        System.arraycopy(head, 0, arguments, 0, head.length);
+        System.arraycopy(tail, 0, arguments, head.length, tail.length);
+        return arguments;
+    }
 }
@@ -0,0 +1,91 @@
+package org.yalli.wah.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.yalli.wah.dao.repository.OtpRepository;
+import org.yalli.wah.model.enums.OtpPurpose;
+import org.yalli.wah.model.exception.InvalidOtpException;
+import org.yalli.wah.model.exception.TooManyRequestsException;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OtpService {
+    private final OtpRepository otpRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${otp.ttl-seconds}")
+    private long ttlSeconds;
+
+    @Value("${otp.verified-ttl-seconds}")
+    private long verifiedTtlSeconds;
+
+    @Value("${otp.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${otp.rate-limit.max-issues}")
+    private int maxIssues;
+
+    @Value("${otp.rate-limit.window-seconds}")
+    private long windowSeconds;
+
+    public String issue(String email, OtpPurpose purpose) {
+        var code = String.valueOf(secureRandom.nextInt(900000) + 100000);
+        var now = LocalDateTime.now();
+        int issued = otpRepository.issue(email, purpose.name(), code, now.plusSeconds(ttlSeconds), now,
+                now.minusSeconds(windowSeconds), maxIssues);
+        if (issued == 0) {
+            log.warn("ActionLog.issueOtp.warn rate limit exceeded email {} purpose {}", email, purpose);
+            throw new TooManyRequestsException("OTP_RATE_LIMIT_EXCEEDED");
+        }
+        return code;
+    }
+
+    public void verify(String email, OtpPurpose purpose, String code) {
+        var now = LocalDateTime.now();
+        var submitted = code == null ? "" : code;
+        if (otpRepository.markVerified(email, purpose.name(), submitted, now,
+                now.plusSeconds(verifiedTtlSeconds)) == 1) {
+            return;
+        }
+        var attempts = otpRepository.recordFailedAttempt(email, purpose.name(), submitted, now, maxAttempts);
+        if (!attempts.isEmpty()) {
+            if (attempts.get(0) >= maxAttempts) {
+                log.warn("ActionLog.verifyOtp.warn attempts exceeded for email {} purpose {}", email, purpose);
+                throw new InvalidOtpException("OTP_ATTEMPTS_EXCEEDED");
+            }
+            log.info("ActionLog.verifyOtp.error invalid OTP for email {} purpose {}", email, purpose);
+            throw new InvalidOtpException("INVALID_OTP");
+        }
+        var otp = otpRepository.findByEmailAndPurpose(email, purpose).orElse(null);
+        if (otp != null && otp.getCode() != null && otp.getExpiresAt().isBefore(now)) {
+            log.info("ActionLog.verifyOtp.error OTP expired for email {} purpose {}", email, purpose);
+            throw new InvalidOtpException("OTP_EXPIRED");
+        }
+        log.info("ActionLog.verifyOtp.error no active OTP for email {} purpose {}", email, purpose);
+        throw new InvalidOtpException("INVALID_OTP");
+    }
+
+    public boolean isVerified(String email, OtpPurpose purpose) {
+        return otpRepository.findByEmailAndPurpose(email, purpose)
+                .filter(otp -> otp.getCode() != null && otp.isVerified()
+                        && otp.getExpiresAt().isAfter(LocalDateTime.now()))
+                .isPresent();
+    }
+
+    public void consume(String email, OtpPurpose purpose) {
+        otpRepository.consume(email, purpose);
+    }
+
+    @Scheduled(fixedDelayString = "${otp.purge-interval-ms}")
+    public void purgeExpired() {
+        var now = LocalDateTime.now();
+        otpRepository.deleteExpired(now, now.minusSeconds(windowSeconds));
+    }
+}
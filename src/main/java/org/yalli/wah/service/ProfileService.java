@@ -15,6 +15,7 @@ import org.yalli.wah.model.dto.MentorRequestDto;
 import org.yalli.wah.model.exception.InvalidInputException;
 import org.yalli.wah.model.exception.PermissionException;
 import org.yalli.wah.model.exception.ResourceNotFoundException;
+import org.yalli.wah.util.ProfileCompleteness;
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,6 +23,8 @@ public class ProfileService {
     private final UserRepository userRepository;
     private final MentorRepository mentorRepository;
     private final ReturnTypeParser genericReturnTypeParser;
+    private final CountCache countCache;
+    private final SearchIndexService searchIndexService;
     public MentorRequestDto getUser(Long id) {
         UserEntity user = userRepository.findById(id).orElseThrow(() ->
                 new EntityNotFoundException("USER_NOT_FOUND"));
@@ -33,10 +36,15 @@ public class ProfileService {
         mentorRepository.findByEmail(mentorApplyDto.getEmail()).ifPresent((mentor)-> {
             throw new InvalidInputException("MENTOR_EXISTS");
         });
+        if (ProfileCompleteness.refresh(userEntity)) {
+            userRepository.updateNotCompletedFields(userEntity.getId(), userEntity.getNotCompletedFields());
+        }
         if (userEntity.getNotCompletedFields() != 0) {
             throw new PermissionException("USER_PROFILE_NOT_COMPLETE");
         }
         MentorEntity mentorEntity = ProfileMapper.INSTANCE.toMentorEntity(mentorApplyDto);
-        mentorRepository.save(mentorEntity);
+        mentorEntity = mentorRepository.save(mentorEntity);
+        searchIndexService.indexMentor(mentorEntity);
+        countCache.invalidate(CountCache.MENTORS);
     }
 }
\ No newline at end of file
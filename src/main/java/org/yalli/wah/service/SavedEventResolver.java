@@ -0,0 +1,30 @@
+package org.yalli.wah.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.yalli.wah.dao.entity.EventEntity;
+import org.yalli.wah.dao.repository.EventRepository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class SavedEventResolver {
+    private final EventRepository eventRepository;
+
+    public Set<Long> resolveSavedIds(Long userId, Collection<EventEntity> events) {
+        if (userId == null || events.isEmpty()) {
+            return Set.of();
+        }
+        return resolveSavedEventIds(userId, events.stream().map(EventEntity::getId).toList());
+    }
+
+    public Set<Long> resolveSavedEventIds(Long userId, Collection<Long> eventIds) {
+        if (userId == null || eventIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(eventRepository.findSavedEventIds(userId, eventIds));
+    }
+}
@@ -0,0 +1,103 @@
+package org.yalli.wah.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.yalli.wah.dao.entity.EventEntity;
+import org.yalli.wah.dao.entity.GroupEntity;
+import org.yalli.wah.dao.entity.MentorEntity;
+import org.yalli.wah.dao.repository.SearchDocumentRepository;
+import org.yalli.wah.model.dto.SearchResponseDto;
+import org.yalli.wah.model.dto.SearchResultDto;
+import org.yalli.wah.model.enums.MentorStatus;
+import org.yalli.wah.model.enums.SearchDocumentType;
+import org.yalli.wah.model.exception.InvalidInputException;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService {
+    private final SearchDocumentRepository searchDocumentRepository;
+
+    @Value("${search.max-page-size}")
+    private int maxPageSize;
+
+    @Transactional
+    public void indexEvent(EventEntity event) {
+        searchDocumentRepository.upsert(SearchDocumentType.EVENT.name(), event.getId(), event.getTitle(),
+                event.getDescription(), event.getCountry(), true);
+    }
+
+    @Transactional
+    public void indexGroup(GroupEntity group) {
+        searchDocumentRepository.upsert(SearchDocumentType.GROUP.name(), group.getId(), group.getTitle(),
+                joinText(group.getDescription(), group.getAbout()), group.getCountry(), true);
+    }
+
+    @Transactional
+    public void indexMentor(MentorEntity mentor) {
+        searchDocumentRepository.upsert(SearchDocumentType.MENTOR.name(), mentor.getId(), mentor.getFullName(),
+                mentor.getDescription(), mentor.getCountry(), mentor.getMentorStatus() == MentorStatus.ACCEPTED);
+    }
+
+    @Transactional
+    public void remove(SearchDocumentType type, Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            searchDocumentRepository.deleteDocuments(type.name(), ids);
+        }
+    }
+
+    public SearchResponseDto search(String query, SearchDocumentType type, String country, int page, int size) {
+        log.info("ActionLog.search.start query {} type {} country {}", query, type, country);
+        if (query == null || query.isBlank()) {
+            throw new InvalidInputException("SEARCH_QUERY_REQUIRED");
+        }
+        int pageSize = Math.max(1, Math.min(maxPageSize, size));
+        int pageNumber = Math.max(0, page);
+        var countryFilter = country == null || country.isBlank() ? null : country;
+        var typeFilter = type == null ? null : type.name();
+
+        var results = searchDocumentRepository.search(query, typeFilter, countryFilter, pageSize,
+                        (long) pageNumber * pageSize).stream()
+                .map(hit -> new SearchResultDto(SearchDocumentType.valueOf(hit.getDocType()), hit.getDocId(),
+                        hit.getTitle(), hit.getCountry(), hit.getRank()))
+                .toList();
+        Map<SearchDocumentType, Long> facets = new EnumMap<>(SearchDocumentType.class);
+        searchDocumentRepository.facets(query, countryFilter)
+                .forEach(facet -> facets.put(SearchDocumentType.valueOf(facet.getDocType()), facet.getTotal()));
+        long total = type == null
+                ? facets.values().stream().mapToLong(Long::longValue).sum()
+                : facets.getOrDefault(type, 0L);
+        log.info("ActionLog.search.end query {} total {}", query, total);
+        return new SearchResponseDto(results, facets, total, pageNumber, pageSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (!searchDocumentRepository.existsByType(SearchDocumentType.EVENT.name())) {
+            log.info("ActionLog.backfillIfEmpty indexed {} events", searchDocumentRepository.backfillEvents());
+        }
+        if (!searchDocumentRepository.existsByType(SearchDocumentType.GROUP.name())) {
+            log.info("ActionLog.backfillIfEmpty indexed {} groups", searchDocumentRepository.backfillGroups());
+        }
+        if (!searchDocumentRepository.existsByType(SearchDocumentType.MENTOR.name())) {
+            log.info("ActionLog.backfillIfEmpty indexed {} mentors", searchDocumentRepository.backfillMentors());
+        }
+    }
+
+    private static String joinText(String... parts) {
+        return Stream.of(parts).filter(Objects::nonNull).collect(Collectors.joining(" "));
+    }
+}
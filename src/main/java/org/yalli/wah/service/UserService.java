@@ -1,5 +1,7 @@
 package org.yalli.wah.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -7,17 +9,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.yalli.wah.dao.entity.UserEntity;
 import org.yalli.wah.dao.repository.UserRepository;
-import org.yalli.wah.mapper.ProfileMapper;
 import org.yalli.wah.mapper.UserMapper;
 import org.yalli.wah.model.dto.*;
+import org.yalli.wah.model.enums.OtpPurpose;
+import org.yalli.wah.model.enums.SocialMedia;
 import org.yalli.wah.model.exception.InvalidInputException;
-import org.yalli.wah.model.exception.InvalidOtpException;
 import org.yalli.wah.model.exception.PermissionException;
 import org.yalli.wah.model.exception.ResourceNotFoundException;
+import org.yalli.wah.util.KeysetPagination;
 import org.yalli.wah.util.PasswordUtil;
-import org.yalli.wah.util.TokenUtil;
+import org.yalli.wah.util.ProfileCompleteness;
 import org.yalli.wah.util.UserSpecification;
 
 import javax.swing.*;
@@ -26,9 +30,9 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
 
 import java.util.*;
+import java.util.function.Function;
 
 
 
@@ -36,11 +40,23 @@ import java.util.*;
 @RequiredArgsConstructor
 @Slf4j
 public class UserService {
+    private static final Map<String, KeysetPagination.SortKey<UserEntity>> SORT_KEYS = KeysetPagination.sortKeys(
+            new KeysetPagination.SortKey<>("fullName", UserEntity::getFullName, Function.identity()),
+            new KeysetPagination.SortKey<>("createdAt", UserEntity::getCreatedAt, LocalDateTime::parse));
+    private static final List<String> MEMBER_COLUMNS = List.of("fullName", "country", "profilePictureUrl",
+            "socialMediaAccounts");
+
     private final UserRepository userRepository;
     private final PasswordUtil passwordUtil;
-    private final TokenUtil tokenUtil;
+    private final AccessTokenService accessTokenService;
 
     private final EmailService emailService;
+    private final OtpService otpService;
+    private final ObjectMapper objectMapper;
+    private final ApproximatePager approximatePager;
+    private final CountCache countCache;
+    private final UserSummaryCache userSummaryCache;
+    private final DeletionJobService deletionJobService;
 
     public HashMap<String, String> login(LoginDto loginDto) {
         log.info("ActionLog.login.start email {}", loginDto.getEmail());
@@ -49,27 +65,22 @@ public class UserService {
         if (!passwordUtil.matches(loginDto.getPassword(), userEntity.getPassword())) {
             throw new InvalidInputException("INVALID_PASSWORD");
         }
-
-        userEntity.setAccessToken(tokenUtil.generateToken());
-        userEntity.setTokenExpire(LocalDateTime.now().plusMinutes(30));
         if (!userEntity.isEmailConfirmed()) {
             log.info("ActionLog.login.error email {} not confirmed", loginDto.getEmail());
             throw new InvalidInputException("EMAIL_NOT_CONFIRMED");
         }
-        userEntity.setNotCompletedFields(0);
-        MemberUpdateDto memberUpdateDto = ProfileMapper.INSTANCE.toMemberUpdateDto(userEntity);
-        String[] fields = memberUpdateDto.toString().split(",");
-        for (String field : fields) {
-            if (field.contains("null")) {
-                userEntity.setNotCompletedFields(userEntity.getNotCompletedFields() + 1);
-            }
+        if (passwordUtil.needsUpgrade(userEntity.getPassword())) {
+            log.info("ActionLog.login.info upgrading password hash email {}", loginDto.getEmail());
+            userRepository.updatePassword(userEntity.getId(), passwordUtil.encode(loginDto.getPassword()));
+        }
+        if (ProfileCompleteness.refresh(userEntity)) {
+            userRepository.updateNotCompletedFields(userEntity.getId(), userEntity.getNotCompletedFields());
         }
-        System.out.println(Arrays.toString(fields));
 
-        userRepository.save(userEntity);
+        var accessToken = accessTokenService.issue(userEntity.getId());
         log.info("ActionLog.login.end email {}", loginDto.getEmail());
         return new HashMap<>() {{
-            put("accessToken", userEntity.getAccessToken());
+            put("accessToken", accessToken);
             put("fullName", userEntity.getFullName());
             put("country", userEntity.getCountry());
             put("image", userEntity.getProfilePictureUrl());
@@ -79,11 +90,9 @@ public class UserService {
 
     public void sendOtp(String email) {
         log.info("ActionLog.sendOtp.start email {}", email);
-        var userEntity = getUserByEmail(email);
-        var otp = generateOtp();
-        userEntity.setOtp(otp);
+        checkUserExists(email);
+        var otp = otpService.issue(email, OtpPurpose.PASSWORD_RESET);
         emailService.sendOtp(email, otp);
-        userRepository.save(userEntity);
         log.info("ActionLog.sendOtp.end email {}", email);
     }
 
@@ -97,74 +106,72 @@ public class UserService {
         UserEntity userEntity = userRepository.findByEmail(registerDto.getEmail()).orElse(new UserEntity());
         userEntity = UserMapper.INSTANCE.mapRegisterDtoToUser(registerDto, userEntity);
         userEntity.setPassword(passwordUtil.encode(userEntity.getPassword()));
+        ProfileCompleteness.refresh(userEntity);
+        userRepository.save(userEntity);
+        userSummaryCache.invalidate(userEntity.getId());
+        countCache.invalidate(CountCache.USERS);
 
-
-        //send otp
-        String otp = generateOtp();
-        userEntity.setOtp(otp);
-        userEntity.setOtpExpiration(LocalDateTime.now().plusSeconds(60));
+        String otp = otpService.issue(registerDto.getEmail(), OtpPurpose.REGISTER_CONFIRM);
         emailService.sendConfirmationEmail(registerDto.getEmail(), otp);
-
-        userRepository.save(userEntity);
         log.info("ActionLog.register.end email {}", registerDto.getEmail());
     }
 
+    public void resendRegisterOtp(String email) {
+        log.info("ActionLog.resendRegisterOtp.start email {}", email);
+        var userEntity = getUserByEmail(email);
+        if (userEntity.isEmailConfirmed()) {
+            throw new InvalidInputException("EMAIL_ALREADY_CONFIRMED");
+        }
+        String otp = otpService.issue(email, OtpPurpose.REGISTER_CONFIRM);
+        emailService.sendConfirmationEmail(email, otp);
+        log.info("ActionLog.resendRegisterOtp.end email {}", email);
+    }
+
     public HashMap<String, String> refreshToken(String accessToken) {
-        UserEntity userEntity = userRepository.findByAccessToken(accessToken).orElseThrow(() -> {
-                    log.info("ActionLog.refreshToken.error accessToken {} not found", accessToken);
-                    return new ResourceNotFoundException("ACCESS_TOKEN_NOT_FOUND");
-                }
-        );
-        userEntity.setAccessToken(tokenUtil.generateToken());
-        userEntity.setTokenExpire(LocalDateTime.now().plusMinutes(30));
-        userRepository.save(userEntity);
+        Long userId;
+        var claims = accessTokenService.parseRefreshable(accessToken);
+        if (claims.isPresent()) {
+            if (!accessTokenService.revoke(claims.get())) {
+                log.info("ActionLog.refreshToken.error token {} already refreshed", claims.get().tokenId());
+                throw new PermissionException("INVALID_ACCESS_TOKEN");
+            }
+            userId = claims.get().userId();
+        } else {
+            UserEntity userEntity = userRepository.findByAccessToken(accessToken).orElseThrow(() -> {
+                        log.info("ActionLog.refreshToken.error accessToken {} not found", accessToken);
+                        return new ResourceNotFoundException("ACCESS_TOKEN_NOT_FOUND");
+                    }
+            );
+            userRepository.updateAccessToken(userEntity.getId(), null, null);
+            userId = userEntity.getId();
+        }
+        var refreshedToken = accessTokenService.issue(userId);
         return new HashMap<>() {{
-            put("accessToken", userEntity.getAccessToken());
+            put("accessToken", refreshedToken);
         }};
     }
 
+    public void logout(String accessToken) {
+        accessTokenService.parseRefreshable(accessToken).ifPresent(accessTokenService::revoke);
+    }
+
 
     public void requestPasswordReset(RequestResetDto requestResetDto) {
         log.info("ActionLog.requestPasswordReset.start email {}", requestResetDto.getEmail());
-        UserEntity user = userRepository.findByEmail(requestResetDto.getEmail()).orElseThrow(
-                () -> {
-                    log.info("ActionLog.requestPasswordReset.error email {} not found", requestResetDto.getEmail());
-                    return new ResourceNotFoundException("EMAIL_NOT_FOUND");
-                }
-        );
-
-
-        user.setOtpExpiration(null);
-        user.setOtpVerified(false);
-
-        String otp = generateOtp();
-        user.setOtp(otp);
-        user.setOtpExpiration(LocalDateTime.now().plusMinutes(1));
-        userRepository.save(user);
+        if (!userRepository.existsByEmail(requestResetDto.getEmail())) {
+            log.info("ActionLog.requestPasswordReset.error email {} not found", requestResetDto.getEmail());
+            throw new ResourceNotFoundException("EMAIL_NOT_FOUND");
+        }
 
-        emailService.sendOtp(user.getEmail(), otp);
+        String otp = otpService.issue(requestResetDto.getEmail(), OtpPurpose.PASSWORD_RESET);
+        emailService.sendOtp(requestResetDto.getEmail(), otp);
         log.info("ActionLog.requestPasswordReset.success OTP sent email {}", requestResetDto.getEmail());
     }
 
     public void verifyOtp(ConfirmDto confirmDto) {
         log.info("ActionLog.verifyOtp.start email {}", confirmDto.getEmail());
-        UserEntity user = getUserByEmail(confirmDto.getEmail());
-
-        if (user.getOtp() != null && user.getOtp().equals(confirmDto.getOtp())) {
-            if (user.getOtpExpiration().isAfter(LocalDateTime.now())) {
-                user.setOtpVerified(true);
-                userRepository.save(user);
-                log.info("ActionLog.verifyOtp.success OTP has verified email {}", confirmDto.getEmail());
-            } else {
-                log.warn("ActionLog.verifyOtp.warn OTP has expired {}", confirmDto.getEmail());
-                throw new InvalidOtpException("OTP_EXPIRED");
-            }
-
-        } else {
-            log.warn("ActionLog.verifyOtp.warn OTP {} doesn't match with email's {} otp", confirmDto.getOtp(),
-                    confirmDto.getEmail());
-            throw new InvalidOtpException("INVALID_PASSWORD");
-        }
+        otpService.verify(confirmDto.getEmail(), OtpPurpose.PASSWORD_RESET, confirmDto.getOtp());
+        log.info("ActionLog.verifyOtp.success OTP has verified email {}", confirmDto.getEmail());
     }
 
     public void resetPassword(PasswordResetDto passwordResetDto) {
@@ -173,7 +180,7 @@ public class UserService {
         var user = getUserByEmail(passwordResetDto.getEmail());
 
 
-        if (!user.isOtpVerified()) {
+        if (!otpService.isVerified(passwordResetDto.getEmail(), OtpPurpose.PASSWORD_RESET)) {
             log.warn("ActionLog.resetPassword.warn OTP not verified email {}", passwordResetDto.getEmail());
             throw new PermissionException("OTP_NOT_VERIFIED");
         }
@@ -183,33 +190,27 @@ public class UserService {
             throw new InvalidInputException("SAME_WITH_OLD_PASSWORD");
         }
 
-        user.setPassword(passwordUtil.encode(passwordResetDto.getNewPassword()));
-        user.setOtpVerified(false);
-
-        user.setOtpExpiration(null);
-        userRepository.save(user);
+        userRepository.updatePassword(user.getId(), passwordUtil.encode(passwordResetDto.getNewPassword()));
+        otpService.consume(passwordResetDto.getEmail(), OtpPurpose.PASSWORD_RESET);
+        accessTokenService.revokeAllForUser(user.getId());
 
         log.info("ActionLog.resetPassword.success email {}", passwordResetDto.getEmail());
     }
 
-    private String generateOtp() {
-        return String.valueOf(new Random().nextInt(900000) + 100000);
+    public void confirmEmail(ConfirmDto confirmDto) {
+        checkUserExists(confirmDto.getEmail());
+        otpService.verify(confirmDto.getEmail(), OtpPurpose.REGISTER_CONFIRM, confirmDto.getOtp());
+        userRepository.confirmEmail(confirmDto.getEmail());
+        countCache.invalidate(CountCache.USERS);
+        otpService.consume(confirmDto.getEmail(), OtpPurpose.REGISTER_CONFIRM);
+        log.info("ActionLog.confirmEmail.success Email confirmed for email {}", confirmDto.getEmail());
     }
 
-    public void confirmEmail(ConfirmDto confirmDto) {
-        UserEntity user = getUserByEmail(confirmDto.getEmail());
-        if (user.getOtpExpiration().isBefore(LocalDateTime.now())) {
-            log.info("ActionLog.confirmEmail.error OTP expired for email {}", confirmDto.getEmail());
-            throw new InvalidOtpException("OTP_EXPIRED");
-        }
-        if (!user.getOtp().equals(confirmDto.getOtp())) {
-            log.info("ActionLog.confirmEmail.error Invalid OTP for email {}", confirmDto.getEmail());
-            throw new InvalidOtpException("INVALID_OTP");
+    private void checkUserExists(String email) {
+        if (!userRepository.existsByEmail(email)) {
+            log.error("ActionLog.checkUserExists.error User not found for email {}", email);
+            throw new ResourceNotFoundException("User not found");
         }
-        user.setEmailConfirmed(true);
-        user.setOtpExpiration(null);
-        userRepository.save(user);
-        log.info("ActionLog.confirmEmail.success Email confirmed for email {}", confirmDto.getEmail());
     }
 
     private UserEntity getUserByEmail(String email) {
@@ -222,17 +223,29 @@ public class UserService {
 
     }
 
-    public Page<MemberDto> searchUsers(String fullName, String country, Pageable pageable) {
+    public Page<MemberDto> searchUsers(String fullName, String country, Pageable pageable, boolean approximateTotal) {
         log.info("ActionLog.searchUsers.start fullName {}, country {}", fullName, country);
-        Specification<UserEntity> spec = Specification.where(UserSpecification.isEmailConfirmed())
-                .and(UserSpecification.hasCountry(country))
-                .and(UserSpecification.hasFullName(fullName));
-
-        Page<UserEntity> userEntities = userRepository.findAll(spec, pageable);
+        Page<MemberDto> members = approximatePager.findProjectedPage(UserEntity.class, MemberDto.class,
+                MEMBER_COLUMNS, userRepository, searchSpecification(fullName, country), pageable, CountCache.USERS,
+                fullName + "|" + country, approximateTotal);
         log.info("ActionLog.searchUsers.end fullName {}, country {}", fullName, country);
+        return members;
+    }
+
+    public SliceDto<MemberDto> scrollUsers(String fullName, String country, ScrollRequest scrollRequest) {
+        log.info("ActionLog.scrollUsers.start fullName {}, country {}", fullName, country);
+        SliceDto<UserEntity> userEntities = KeysetPagination.scroll(userRepository,
+                searchSpecification(fullName, country), scrollRequest, SORT_KEYS, UserEntity::getId);
+        log.info("ActionLog.scrollUsers.end fullName {}, country {}", fullName, country);
         return userEntities.map(UserMapper.INSTANCE::mapUserEntityToMemberDto);
     }
 
+    private Specification<UserEntity> searchSpecification(String fullName, String country) {
+        return Specification.where(UserSpecification.isEmailConfirmed())
+                .and(UserSpecification.hasCountry(country))
+                .and(UserSpecification.hasFullName(fullName));
+    }
+
     public MemberInfoDto getUserById(Long id) {
         return UserMapper.INSTANCE.mapUserEntityToMemberInfoDto(userRepository.findById(id).orElseThrow(() ->
         {
@@ -249,24 +262,52 @@ public class UserService {
             return new ResourceNotFoundException("USER_NOT_FOUND");
         });
         UserEntity userEntity = UserMapper.INSTANCE.updateMember(user, memberUpdateDto);
-        userEntity.setNotCompletedFields(0);
-        String[] fields = memberUpdateDto.toString().split(",");
-        for (String field : fields) {
-            if (field.contains("null")) {
-                userEntity.setNotCompletedFields(userEntity.getNotCompletedFields() + 1);
-            }
-        }
+        ProfileCompleteness.refresh(userEntity);
         userRepository.save(userEntity);
+        userSummaryCache.invalidate(id);
+        countCache.invalidate(CountCache.USERS);
+    }
 
+    public void updateSocialMediaAccounts(Long id, Map<SocialMedia, String> accounts) {
+        log.info("ActionLog.updateSocialMediaAccounts.start id {}", id);
+        if (accounts == null || accounts.isEmpty()
+                || accounts.values().stream().anyMatch(url -> url == null || url.isBlank())) {
+            throw new InvalidInputException("SOCIAL_MEDIA_ACCOUNTS_REQUIRED");
+        }
+        String patch;
+        try {
+            patch = objectMapper.writeValueAsString(accounts);
+        } catch (JsonProcessingException e) {
+            throw new InvalidInputException("INVALID_SOCIAL_MEDIA_ACCOUNTS");
+        }
+        if (userRepository.mergeSocialMediaAccounts(id, patch) == 0) {
+            log.error("ActionLog.updateSocialMediaAccounts.error user not found with id {}", id);
+            throw new ResourceNotFoundException("USER_NOT_FOUND");
+        }
+        userSummaryCache.invalidate(id);
+        log.info("ActionLog.updateSocialMediaAccounts.end id {}", id);
+    }
+
+    public void removeSocialMediaAccount(Long id, SocialMedia platform) {
+        log.info("ActionLog.removeSocialMediaAccount.start id {} platform {}", id, platform);
+        if (userRepository.removeSocialMediaAccount(id, platform.name()) == 0 && !userRepository.existsById(id)) {
+            log.error("ActionLog.removeSocialMediaAccount.error user not found with id {}", id);
+            throw new ResourceNotFoundException("USER_NOT_FOUND");
+        }
+        userSummaryCache.invalidate(id);
+        log.info("ActionLog.removeSocialMediaAccount.end id {} platform {}", id, platform);
     }
 
-    public void deleteUser(Long id) {
+    @Transactional
+    public DeletionJobDto deleteUser(Long id) {
         log.info("ActionLog.delete.start id {}", id);
         if (!userRepository.existsById(id)) {
             throw new EntityNotFoundException("User not found with " + id);
         }
-        userRepository.deleteById(id);
-        log.info("ActionLog.delete.end id {}", id);
+        var job = deletionJobService.enqueueUserDeletion(id);
+        userSummaryCache.invalidate(id);
+        log.info("ActionLog.delete.end id {} job {}", id, job.getId());
+        return job;
     }
 
 }
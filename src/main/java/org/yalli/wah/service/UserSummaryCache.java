@@ -0,0 +1,103 @@
+package org.yalli.wah.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.yalli.wah.dao.repository.UserRepository;
+import org.yalli.wah.model.dto.UserSummaryDto;
+import org.yalli.wah.model.exception.ResourceNotFoundException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class UserSummaryCache {
+    private final UserRepository userRepository;
+    private final Map<Long, CachedSummary> summaries;
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlMillis;
+
+    public UserSummaryCache(UserRepository userRepository,
+                            @Value("${users.summary-cache.max-entries}") int maxEntries,
+                            @Value("${users.summary-cache.ttl-seconds}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.summaries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedSummary> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public UserSummaryDto get(Long id) {
+        var summary = getAll(List.of(id)).get(id);
+        if (summary == null) {
+            log.error("ActionLog.getUserSummary.error user not found with id {}", id);
+            throw new ResourceNotFoundException("MEMBER_NOT_FOUND");
+        }
+        return summary;
+    }
+
+    public Map<Long, UserSummaryDto> getAll(Collection<Long> ids) {
+        Map<Long, UserSummaryDto> found = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        long now = System.currentTimeMillis();
+        synchronized (summaries) {
+            for (Long id : ids) {
+                var cached = summaries.get(id);
+                if (cached != null && cached.expiresAt() > now) {
+                    found.put(id, cached.summary());
+                } else if (id != null) {
+                    missing.add(id);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+        long loadedAt = generation.get();
+        var loaded = userRepository.findSummariesByIdIn(missing);
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        synchronized (summaries) {
+            for (UserSummaryDto summary : loaded) {
+                found.put(summary.getId(), summary);
+                if (generation.get() == loadedAt) {
+                    summaries.put(summary.getId(), new CachedSummary(summary, expiresAt));
+                }
+            }
+        }
+        return found;
+    }
+
+    public void invalidate(Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    private void evict(Long id) {
+        synchronized (summaries) {
+            generation.incrementAndGet();
+            summaries.remove(id);
+        }
+    }
+
+    private record CachedSummary(UserSummaryDto summary, long expiresAt) {
+    }
+}
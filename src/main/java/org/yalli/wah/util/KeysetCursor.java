@@ -0,0 +1,32 @@
+package org.yalli.wah.util;
+
+import org.yalli.wah.model.exception.InvalidInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record KeysetCursor(Long id, String value) {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        var raw = value == null ? String.valueOf(id) : id + ":" + value;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            var raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                return new KeysetCursor(Long.valueOf(raw), null);
+            }
+            return new KeysetCursor(Long.valueOf(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("INVALID_CURSOR");
+        }
+    }
+}
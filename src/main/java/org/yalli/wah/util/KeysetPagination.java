@@ -0,0 +1,106 @@
+package org.yalli.wah.util;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.yalli.wah.model.dto.ScrollRequest;
+import org.yalli.wah.model.dto.SliceDto;
+import org.yalli.wah.model.exception.InvalidInputException;
+
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class KeysetPagination {
+    private static final String ID = "id";
+    private static final int MAX_SIZE = 100;
+
+    public record SortKey<E>(String field, Function<E, ?> extractor, Function<String, ? extends Comparable<?>> parser) {
+    }
+
+    @SafeVarargs
+    public static <E> Map<String, SortKey<E>> sortKeys(SortKey<E>... keys) {
+        Map<String, SortKey<E>> sortKeys = new LinkedHashMap<>();
+        for (SortKey<E> key : keys) {
+            sortKeys.put(key.field(), key);
+        }
+        return sortKeys;
+    }
+
+    public static <E> SliceDto<E> scroll(JpaSpecificationExecutor<E> repository,
+                                         Specification<E> specification,
+                                         ScrollRequest request,
+                                         Map<String, SortKey<E>> sortKeys,
+                                         Function<E, Long> idExtractor) {
+        var sortField = request.getSort() == null || request.getSort().isBlank() ? ID : request.getSort();
+        var sortKey = ID.equals(sortField) ? null : sortKeys.get(sortField);
+        if (!ID.equals(sortField) && sortKey == null) {
+            throw new InvalidInputException("INVALID_SORT_FIELD");
+        }
+        var direction = request.getDirection() == null ? Sort.Direction.ASC : request.getDirection();
+        int size = Math.max(1, Math.min(MAX_SIZE, request.getSize() == null ? 20 : request.getSize()));
+        var sort = sortKey == null ? Sort.by(direction, ID) : Sort.by(direction, sortField).and(Sort.by(direction, ID));
+        var cursor = KeysetCursor.decode(request.getCursor());
+        var value = parseValue(cursor, sortKey);
+
+        Specification<E> seek = Specification.where(specification)
+                .and(after(cursor, sortKey, value, direction.isAscending()));
+        List<E> rows = repository.findBy(seek, query -> query.sortBy(sort).limit(size + 1).all());
+
+        boolean hasNext = rows.size() > size;
+        List<E> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            var last = content.get(content.size() - 1);
+            var lastKey = sortKey == null ? null : sortKey.extractor().apply(last);
+            var lastValue = lastKey == null ? null : String.valueOf(lastKey);
+            nextCursor = new KeysetCursor(idExtractor.apply(last), lastValue).encode();
+        }
+        return new SliceDto<>(content, nextCursor, hasNext);
+    }
+
+    private static Comparable<?> parseValue(KeysetCursor cursor, SortKey<?> sortKey) {
+        if (cursor == null || sortKey == null || cursor.value() == null) {
+            return null;
+        }
+        try {
+            return sortKey.parser().apply(cursor.value());
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new InvalidInputException("INVALID_CURSOR");
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static <E> Specification<E> after(KeysetCursor cursor, SortKey<E> sortKey, Comparable value,
+                                              boolean ascending) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return criteriaBuilder.conjunction();
+            }
+            Path<Long> id = root.get(ID);
+            Predicate idAfter = ascending
+                    ? criteriaBuilder.greaterThan(id, cursor.id())
+                    : criteriaBuilder.lessThan(id, cursor.id());
+            if (sortKey == null) {
+                return idAfter;
+            }
+            // Postgres puts NULLs last when ascending and first when descending; a cursor without a value marks
+            // a row whose sort key was NULL.
+            Path<Comparable> path = root.get(sortKey.field());
+            if (value == null) {
+                Predicate nullAfter = criteriaBuilder.and(criteriaBuilder.isNull(path), idAfter);
+                return ascending ? nullAfter : criteriaBuilder.or(nullAfter, criteriaBuilder.isNotNull(path));
+            }
+            Predicate keyAfter = ascending
+                    ? criteriaBuilder.greaterThan(path, value)
+                    : criteriaBuilder.lessThan(path, value);
+            Predicate afterValue = criteriaBuilder.or(keyAfter,
+                    criteriaBuilder.and(criteriaBuilder.equal(path, value), idAfter));
+            return ascending ? criteriaBuilder.or(afterValue, criteriaBuilder.isNull(path)) : afterValue;
+        };
+    }
+}
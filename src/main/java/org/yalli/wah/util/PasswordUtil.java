@@ -1,17 +1,87 @@
 package org.yalli.wah.util;
 
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.yalli.wah.model.exception.ServiceBusyException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
+@Slf4j
 public class PasswordUtil {
-    BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder();
+    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final ThreadPoolExecutor hashingExecutor;
+    private final long maxWaitMs;
+
+    public PasswordUtil(@Value("${security.bcrypt.strength}") int strength,
+                        @Value("${security.bcrypt.threads}") int threads,
+                        @Value("${security.bcrypt.queue-capacity}") int queueCapacity,
+                        @Value("${security.bcrypt.max-wait-ms}") long maxWaitMs) {
+        this.bCryptPasswordEncoder = new BCryptPasswordEncoder(strength);
+        this.maxWaitMs = maxWaitMs;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        var threadNumber = new AtomicInteger();
+        this.hashingExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "bcrypt-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
 
     public String encode(String password) {
-        return bCryptPasswordEncoder.encode(password);
+        return execute(() -> bCryptPasswordEncoder.encode(password));
     }
 
     public boolean matches(String rawPassword, String encodedPassword) {
-        return bCryptPasswordEncoder.matches(rawPassword, encodedPassword);
+        return execute(() -> bCryptPasswordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public boolean needsUpgrade(String encodedPassword) {
+        return bCryptPasswordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = hashingExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("ActionLog.passwordUtil.warn hashing queue full, active {} queued {}",
+                    hashingExecutor.getActiveCount(), hashingExecutor.getQueue().size());
+            throw new ServiceBusyException("PASSWORD_HASHING_BUSY");
+        }
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceBusyException("PASSWORD_HASHING_BUSY");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("PASSWORD_HASHING_BUSY");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
     }
 }
@@ -0,0 +1,47 @@
+package org.yalli.wah.util;
+
+import org.yalli.wah.dao.entity.UserEntity;
+
+import java.util.Map;
+
+public class ProfileCompleteness {
+    public static int countMissing(UserEntity user) {
+        int missing = 0;
+        if (isBlank(user.getFullName())) {
+            missing++;
+        }
+        if (user.getBirthDate() == null) {
+            missing++;
+        }
+        if (isBlank(user.getCountry())) {
+            missing++;
+        }
+        if (isBlank(user.getCity())) {
+            missing++;
+        }
+        if (isBlank(user.getProfilePictureUrl())) {
+            missing++;
+        }
+        if (isEmpty(user.getSocialMediaAccounts())) {
+            missing++;
+        }
+        return missing;
+    }
+
+    public static boolean refresh(UserEntity user) {
+        int missing = countMissing(user);
+        if (user.getNotCompletedFields() != null && user.getNotCompletedFields() == missing) {
+            return false;
+        }
+        user.setNotCompletedFields(missing);
+        return true;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static boolean isEmpty(Map<?, ?> value) {
+        return value == null || value.isEmpty();
+    }
+}
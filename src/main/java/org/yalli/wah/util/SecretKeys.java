@@ -0,0 +1,12 @@
+package org.yalli.wah.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+public class SecretKeys {
+    public static boolean matches(String configured, String presented) {
+        return configured != null && !configured.isBlank() && presented != null
+                && MessageDigest.isEqual(configured.getBytes(StandardCharsets.UTF_8),
+                presented.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,9 @@
+package org.yalli.wah.util;
+
+import java.time.Instant;
+
+public record TokenClaims(Long userId, Instant issuedAt, Instant expiresAt, String tokenId) {
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
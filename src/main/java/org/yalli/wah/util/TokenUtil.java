@@ -1,12 +1,87 @@
 package org.yalli.wah.util;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
 
 @Component
 public class TokenUtil {
-    public String generateToken() {
-        return UUID.randomUUID().toString().substring(0, 16);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final SecretKeySpec secretKey;
+    private final Duration ttl;
+
+    public TokenUtil(@Value("${token.secret}") String secret,
+                     @Value("${token.ttl-minutes}") long ttlMinutes) {
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length < 32) {
+            throw new IllegalStateException("token.secret must be at least 32 bytes");
+        }
+        this.secretKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    public String generateToken(Long userId) {
+        var now = Instant.now();
+        byte[] nonce = new byte[12];
+        secureRandom.nextBytes(nonce);
+        String payload = userId + ":" + now.toEpochMilli() + ":" + now.plus(ttl).getEpochSecond() + ":"
+                + ENCODER.encodeToString(nonce);
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+    }
+
+    public Optional<TokenClaims> parse(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int separator = token.indexOf('.');
+        if (separator <= 0 || separator != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        String encodedPayload = token.substring(0, separator);
+        try {
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(signature, sign(encodedPayload))) {
+                return Optional.empty();
+            }
+            String[] parts = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 4) {
+                return Optional.empty();
+            }
+            return Optional.of(new TokenClaims(Long.valueOf(parts[0]),
+                    Instant.ofEpochMilli(Long.parseLong(parts[1])),
+                    Instant.ofEpochSecond(Long.parseLong(parts[2])),
+                    parts[3]));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private byte[] sign(String encodedPayload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,9 @@
+CREATE TABLE membership_changes
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    group_id   BIGINT,
+    user_id    BIGINT,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX idx_membership_changes_created_at ON membership_changes (created_at);
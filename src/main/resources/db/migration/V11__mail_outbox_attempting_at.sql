@@ -0,0 +1 @@
+ALTER TABLE mail_outbox ADD COLUMN attempting_at TIMESTAMP(6);
@@ -0,0 +1,3 @@
+DELETE FROM revoked_tokens r USING revoked_tokens o WHERE r.token_id = o.token_id AND r.id > o.id;
+
+CREATE UNIQUE INDEX idx_revoked_tokens_token_id ON revoked_tokens (token_id);
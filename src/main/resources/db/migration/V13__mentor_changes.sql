@@ -0,0 +1,8 @@
+CREATE TABLE mentor_changes
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    mentor_id  BIGINT       NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX idx_mentor_changes_created_at ON mentor_changes (created_at);
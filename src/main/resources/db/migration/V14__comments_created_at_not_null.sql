@@ -0,0 +1,4 @@
+UPDATE comments SET created_at = TIMESTAMP '1970-01-01 00:00:00' WHERE created_at IS NULL;
+
+ALTER TABLE comments ALTER COLUMN created_at SET DEFAULT now();
+ALTER TABLE comments ALTER COLUMN created_at SET NOT NULL;
@@ -0,0 +1,101 @@
+CREATE TABLE users
+(
+    id                             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    full_name                      VARCHAR(255),
+    email                          VARCHAR(255),
+    password                       VARCHAR(255),
+    birth_date                     DATE,
+    country                        VARCHAR(255),
+    city                           VARCHAR(255),
+    access_token                   VARCHAR(255),
+    token_expire                   TIMESTAMP(6),
+    created_at                     TIMESTAMP(6),
+    updated_at                     TIMESTAMP(6),
+    profile_picture_url            VARCHAR(255),
+    account_urls                   JSONB,
+    otp                            VARCHAR(255),
+    otp_expiration                 TIMESTAMP(6),
+    otp_verified                   BOOLEAN DEFAULT FALSE NOT NULL,
+    email_confirmed                BOOLEAN DEFAULT FALSE NOT NULL,
+    number_of_not_completed_fields INTEGER
+);
+
+CREATE TABLE events
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title       VARCHAR(255),
+    country     VARCHAR(255),
+    city        VARCHAR(255),
+    description VARCHAR(10000),
+    image_id    VARCHAR(255),
+    date        DATE,
+    is_popular  BOOLEAN,
+    link        VARCHAR(255),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE groups
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title        VARCHAR(255),
+    description  VARCHAR(10000),
+    about        TEXT,
+    image_id     VARCHAR(255),
+    country      VARCHAR(255),
+    rename_count SMALLINT,
+    gallery      JSONB,
+    member_count BIGINT,
+    user_id      BIGINT REFERENCES users (id),
+    link         VARCHAR(255),
+    category     VARCHAR(255),
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6)
+);
+
+CREATE TABLE mentors
+(
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    full_name       VARCHAR(255),
+    country         VARCHAR(255),
+    city            VARCHAR(255),
+    email           VARCHAR(255),
+    profile_picture VARCHAR(255),
+    description     TEXT,
+    mentor_category VARCHAR(255),
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    link            VARCHAR(255),
+    mentor_status   VARCHAR(255)
+);
+
+CREATE TABLE comments
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content    VARCHAR(255),
+    rate       INTEGER,
+    user_name  VARCHAR(255),
+    mentors_id BIGINT REFERENCES mentors (id),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE notifications
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content       VARCHAR(255),
+    detail        VARCHAR(255),
+    sent_time     TIMESTAMP(6),
+    for_all_users BOOLEAN
+);
+
+CREATE TABLE user_saved_events
+(
+    user_id  BIGINT NOT NULL REFERENCES users (id),
+    event_id BIGINT NOT NULL REFERENCES events (id)
+);
+
+CREATE TABLE user_notifications
+(
+    user_id          BIGINT NOT NULL REFERENCES users (id),
+    notifications_id BIGINT NOT NULL REFERENCES notifications (id)
+);
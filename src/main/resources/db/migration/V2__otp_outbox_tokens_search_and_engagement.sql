@@ -0,0 +1,67 @@
+ALTER TABLE users DROP COLUMN IF EXISTS otp;
+ALTER TABLE users DROP COLUMN IF EXISTS otp_expiration;
+ALTER TABLE users DROP COLUMN IF EXISTS otp_verified;
+
+ALTER TABLE events ADD COLUMN IF NOT EXISTS view_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS save_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS popularity_score DOUBLE PRECISION DEFAULT 0 NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_events_popularity_score ON events (popularity_score);
+
+CREATE TABLE IF NOT EXISTS mail_outbox
+(
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient       VARCHAR(255),
+    subject         VARCHAR(255),
+    body            TEXT,
+    status          VARCHAR(255),
+    attempts        INTEGER,
+    next_attempt_at TIMESTAMP(6),
+    claimed_at      TIMESTAMP(6),
+    sent_at         TIMESTAMP(6),
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS otps
+(
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email             VARCHAR(255),
+    purpose           VARCHAR(255),
+    code              VARCHAR(255),
+    expires_at        TIMESTAMP(6),
+    attempts          INTEGER NOT NULL,
+    verified          BOOLEAN NOT NULL,
+    window_started_at TIMESTAMP(6),
+    issued_in_window  INTEGER NOT NULL,
+    CONSTRAINT uk_otps_email_purpose UNIQUE (email, purpose)
+);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens
+(
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_id       VARCHAR(255),
+    user_id        BIGINT,
+    revoked_before TIMESTAMP(6),
+    expires_at     TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS search_documents
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    doc_type   VARCHAR(16),
+    doc_id     BIGINT,
+    title      VARCHAR(255),
+    body       TEXT,
+    country    VARCHAR(255),
+    visible    BOOLEAN NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_search_documents_doc UNIQUE (doc_type, doc_id)
+);
+
+ALTER TABLE search_documents
+    ADD COLUMN IF NOT EXISTS document tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(body, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_search_documents_document ON search_documents USING GIN (document);
@@ -0,0 +1,48 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- users: login, legacy token refresh and member search (lower(country) / lower(full_name) LIKE 'x%')
+CREATE INDEX idx_users_email ON users (email);
+CREATE INDEX idx_users_access_token ON users (access_token) WHERE access_token IS NOT NULL;
+CREATE INDEX idx_users_confirmed_country_name ON users (lower(country) text_pattern_ops, lower(full_name) text_pattern_ops)
+    WHERE email_confirmed;
+CREATE INDEX idx_users_confirmed_name ON users (lower(full_name) text_pattern_ops) WHERE email_confirmed;
+CREATE INDEX idx_users_created_at_id ON users (created_at, id);
+
+-- events: UPCOMING/EXPIRED by date, country filter, title prefix, manual POPULAR flag
+CREATE INDEX idx_events_date ON events (date, id);
+CREATE INDEX idx_events_country_date ON events (country, date);
+CREATE INDEX idx_events_title_prefix ON events (title varchar_pattern_ops);
+CREATE INDEX idx_events_popular ON events (id) WHERE is_popular;
+CREATE INDEX idx_events_created_at_id ON events (created_at, id);
+
+-- groups: category/country filters, title prefix, owner lookups
+CREATE INDEX idx_groups_category_country ON groups (category, country);
+CREATE INDEX idx_groups_country ON groups (country);
+CREATE INDEX idx_groups_title_prefix ON groups (title varchar_pattern_ops);
+CREATE INDEX idx_groups_user_id ON groups (user_id, id);
+CREATE INDEX idx_groups_created_at_id ON groups (created_at, id);
+
+-- mentors: every listing filters on ACCEPTED; full name search uses a leading wildcard
+CREATE INDEX idx_mentors_accepted_country ON mentors (country) WHERE mentor_status = 'ACCEPTED';
+CREATE INDEX idx_mentors_accepted_category ON mentors (mentor_category) WHERE mentor_status = 'ACCEPTED';
+CREATE INDEX idx_mentors_accepted_created_at_id ON mentors (created_at, id) WHERE mentor_status = 'ACCEPTED';
+CREATE INDEX idx_mentors_full_name_trgm ON mentors USING GIN (full_name gin_trgm_ops);
+CREATE INDEX idx_mentors_email ON mentors (email);
+
+CREATE INDEX idx_comments_mentors_id ON comments (mentors_id, created_at);
+
+-- join tables: drop duplicate pairs left by the old load-and-save path, then key them
+DELETE FROM user_saved_events a USING user_saved_events b
+WHERE a.ctid < b.ctid AND a.user_id = b.user_id AND a.event_id = b.event_id;
+ALTER TABLE user_saved_events ADD CONSTRAINT pk_user_saved_events PRIMARY KEY (user_id, event_id);
+CREATE INDEX idx_user_saved_events_event_id ON user_saved_events (event_id);
+
+DELETE FROM user_notifications a USING user_notifications b
+WHERE a.ctid < b.ctid AND a.user_id = b.user_id AND a.notifications_id = b.notifications_id;
+ALTER TABLE user_notifications ADD CONSTRAINT pk_user_notifications PRIMARY KEY (user_id, notifications_id);
+CREATE INDEX idx_user_notifications_notifications_id ON user_notifications (notifications_id);
+
+CREATE INDEX idx_mail_outbox_status_next_attempt ON mail_outbox (status, next_attempt_at);
+CREATE INDEX idx_mail_outbox_status_claimed ON mail_outbox (status, claimed_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+CREATE INDEX idx_otps_expires_at ON otps (expires_at);
@@ -0,0 +1,20 @@
+CREATE TABLE reminder_runs
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    run_date      DATE         NOT NULL,
+    status        VARCHAR(255) NOT NULL,
+    last_user_id  BIGINT       NOT NULL DEFAULT 0,
+    last_event_id BIGINT       NOT NULL DEFAULT 0,
+    started_at    TIMESTAMP(6),
+    finished_at   TIMESTAMP(6),
+    CONSTRAINT uk_reminder_runs_run_date UNIQUE (run_date)
+);
+
+CREATE TABLE event_reminders
+(
+    event_id        BIGINT PRIMARY KEY REFERENCES events (id) ON DELETE CASCADE,
+    run_id          BIGINT NOT NULL REFERENCES reminder_runs (id),
+    notification_id BIGINT NOT NULL REFERENCES notifications (id)
+);
+
+CREATE INDEX idx_event_reminders_run_id ON event_reminders (run_id, event_id);
@@ -0,0 +1,14 @@
+CREATE TABLE group_members
+(
+    group_id  BIGINT NOT NULL REFERENCES groups (id) ON DELETE CASCADE,
+    user_id   BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    joined_at TIMESTAMP(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (group_id, user_id)
+);
+
+CREATE INDEX idx_group_members_user_id ON group_members (user_id, group_id);
+
+UPDATE groups SET member_count = 0 WHERE member_count IS NULL;
+UPDATE groups SET rename_count = 0 WHERE rename_count IS NULL;
+ALTER TABLE groups ALTER COLUMN member_count SET DEFAULT 0, ALTER COLUMN member_count SET NOT NULL;
+ALTER TABLE groups ALTER COLUMN rename_count SET DEFAULT 0, ALTER COLUMN rename_count SET NOT NULL;
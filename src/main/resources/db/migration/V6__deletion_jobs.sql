@@ -0,0 +1,29 @@
+CREATE TABLE deletion_jobs
+(
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    target          VARCHAR(16)  NOT NULL,
+    user_id         BIGINT       NOT NULL,
+    group_ids       JSONB,
+    status          VARCHAR(16)  NOT NULL,
+    deleted_rows    BIGINT       NOT NULL DEFAULT 0,
+    deleted_objects INTEGER      NOT NULL DEFAULT 0,
+    failed_objects  INTEGER      NOT NULL DEFAULT 0,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6),
+    claimed_at      TIMESTAMP(6),
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP(6),
+    finished_at     TIMESTAMP(6)
+);
+
+CREATE INDEX idx_deletion_jobs_status ON deletion_jobs (status, next_attempt_at);
+
+CREATE TABLE deletion_objects
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_id      BIGINT        NOT NULL REFERENCES deletion_jobs (id) ON DELETE CASCADE,
+    object_name VARCHAR(1000) NOT NULL,
+    attempts    INTEGER       NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_deletion_objects_job_id ON deletion_objects (job_id, id);
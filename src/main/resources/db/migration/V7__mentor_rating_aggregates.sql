@@ -0,0 +1,27 @@
+ALTER TABLE mentors
+    ADD COLUMN rating_sum       BIGINT    NOT NULL DEFAULT 0,
+    ADD COLUMN rating_count     INTEGER   NOT NULL DEFAULT 0,
+    ADD COLUMN rating_histogram INTEGER[] NOT NULL DEFAULT '{0,0,0,0,0}';
+
+UPDATE mentors m
+SET rating_sum       = r.rating_sum,
+    rating_count     = r.rating_count,
+    rating_histogram = r.rating_histogram
+FROM (SELECT c.mentors_id,
+             sum(c.rate)                                              AS rating_sum,
+             count(*)                                                 AS rating_count,
+             ARRAY [count(*) FILTER (WHERE c.rate = 1), count(*) FILTER (WHERE c.rate = 2),
+                 count(*) FILTER (WHERE c.rate = 3), count(*) FILTER (WHERE c.rate = 4),
+                 count(*) FILTER (WHERE c.rate = 5)]::INTEGER[]       AS rating_histogram
+      FROM comments c
+      WHERE c.rate BETWEEN 1 AND 5
+      GROUP BY c.mentors_id) r
+WHERE m.id = r.mentors_id;
+
+ALTER TABLE mentors
+    ADD COLUMN rating_average DOUBLE PRECISION GENERATED ALWAYS AS (
+        CASE WHEN rating_count = 0 THEN 0 ELSE rating_sum::DOUBLE PRECISION / rating_count END) STORED;
+
+CREATE INDEX idx_mentors_accepted_rating_average ON mentors (rating_average, rating_count, id)
+    WHERE mentor_status = 'ACCEPTED';
+CREATE INDEX idx_mentors_accepted_rating_count ON mentors (rating_count, id) WHERE mentor_status = 'ACCEPTED';
@@ -0,0 +1,2 @@
+DROP INDEX IF EXISTS idx_comments_mentors_id;
+CREATE INDEX idx_comments_mentors_id_created_at_id ON comments (mentors_id, created_at, id);
@@ -0,0 +1,22 @@
+ALTER TABLE notifications ADD COLUMN target VARCHAR(16);
+ALTER TABLE notifications ADD COLUMN target_country VARCHAR(255);
+
+UPDATE notifications n
+SET target = CASE
+                 WHEN n.for_all_users
+                     AND NOT EXISTS (SELECT 1 FROM user_notifications un WHERE un.notifications_id = n.id)
+                     THEN 'ALL'
+                 ELSE 'USERS' END;
+
+ALTER TABLE notifications ALTER COLUMN target SET DEFAULT 'USERS';
+ALTER TABLE notifications ALTER COLUMN target SET NOT NULL;
+
+CREATE INDEX idx_notifications_all ON notifications (id) WHERE target = 'ALL';
+CREATE INDEX idx_notifications_country ON notifications (target_country, id) WHERE target = 'COUNTRY';
+
+CREATE TABLE notification_reads
+(
+    user_id      BIGINT PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    last_read_id BIGINT NOT NULL DEFAULT 0,
+    read_at      TIMESTAMP(6)
+);
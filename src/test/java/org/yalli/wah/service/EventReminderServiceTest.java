@@ -0,0 +1,123 @@
+package org.yalli.wah.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.yalli.wah.dao.repository.NotificationRepository;
+import org.yalli.wah.dao.repository.ReminderRunRepository;
+import org.yalli.wah.model.enums.ReminderRunStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers
+class EventReminderServiceTest {
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ReminderRunRepository reminderRunRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.execute("TRUNCATE mail_outbox, user_notifications, event_reminders, reminder_runs, " +
+                "user_saved_events, notifications, events, users RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    void unfinishedRunFromEarlierDayResumesFromCheckpoint() {
+        long event = event("Concert");
+        long first = user("first@yalli.org");
+        long second = user("second@yalli.org");
+        long third = user("third@yalli.org");
+        saved(first, event);
+        saved(second, event);
+        saved(third, event);
+        long notification = jdbcTemplate.queryForObject("INSERT INTO notifications (content, for_all_users) " +
+                "VALUES ('Reminder: Concert', false) RETURNING id", Long.class);
+        long run = jdbcTemplate.queryForObject("INSERT INTO reminder_runs (run_date, status, last_user_id, " +
+                        "last_event_id, started_at) VALUES (?, 'IN_PROGRESS', ?, ?, now()) RETURNING id", Long.class,
+                LocalDate.now().minusDays(1), first, event);
+        jdbcTemplate.update("INSERT INTO event_reminders (event_id, run_id, notification_id) VALUES (?, ?, ?)",
+                event, run, notification);
+        jdbcTemplate.update("INSERT INTO user_notifications (user_id, notifications_id) VALUES (?, ?)",
+                first, notification);
+
+        service(1000).remindSavedEvents();
+
+        assertThat(reminderRunRepository.findById(run)).get()
+                .extracting("status").isEqualTo(ReminderRunStatus.DONE);
+        assertThat(jdbcTemplate.queryForList("SELECT user_id FROM user_notifications ORDER BY user_id", Long.class))
+                .containsExactly(first, second, third);
+        assertThat(jdbcTemplate.queryForList("SELECT recipient FROM mail_outbox ORDER BY recipient", String.class))
+                .containsExactly("second@yalli.org", "third@yalli.org");
+        assertThat(reminderRunRepository.findByRunDate(LocalDate.now())).get()
+                .extracting("status").isEqualTo(ReminderRunStatus.DONE);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM event_reminders", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void userWithMoreSavesThanChunkGetsOneDigest() {
+        long busy = user("busy@yalli.org");
+        long other = user("other@yalli.org");
+        for (String title : List.of("Alpha", "Beta", "Gamma")) {
+            saved(busy, event(title));
+        }
+        saved(other, event("Delta"));
+
+        service(2).remindSavedEvents();
+
+        List<String> bodies = jdbcTemplate.queryForList(
+                "SELECT body FROM mail_outbox WHERE recipient = 'busy@yalli.org'", String.class);
+        assertThat(bodies).hasSize(1);
+        assertThat(bodies.get(0)).contains("Alpha", "Beta", "Gamma");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM mail_outbox WHERE recipient = 'other@yalli.org'",
+                Long.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM user_notifications", Long.class)).isEqualTo(4);
+    }
+
+    private EventReminderService service(int chunkSize) {
+        return new EventReminderService(reminderRunRepository, notificationRepository, jdbcTemplate,
+                new TransactionTemplate(transactionManager), 3, chunkSize);
+    }
+
+    private long user(String email) {
+        return jdbcTemplate.queryForObject("INSERT INTO users (email, email_confirmed) VALUES (?, true) RETURNING id",
+                Long.class, email);
+    }
+
+    private long event(String title) {
+        return jdbcTemplate.queryForObject("INSERT INTO events (title, date) VALUES (?, ?) RETURNING id", Long.class,
+                title, LocalDate.now().plusDays(1));
+    }
+
+    private void saved(long userId, long eventId) {
+        jdbcTemplate.update("INSERT INTO user_saved_events (user_id, event_id) VALUES (?, ?)", userId, eventId);
+    }
+}
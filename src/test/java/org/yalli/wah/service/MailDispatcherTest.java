@@ -0,0 +1,109 @@
+package org.yalli.wah.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.yalli.wah.dao.entity.MailOutboxEntity;
+import org.yalli.wah.dao.repository.MailOutboxRepository;
+import org.yalli.wah.model.enums.MailStatus;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MailDispatcherTest {
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final MailOutboxRepository mailOutboxRepository = mock(MailOutboxRepository.class);
+    private MailDispatcher mailDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        var mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        mailDispatcher = new MailDispatcher(mailOutboxRepository, mailSender, new SimpleMeterRegistry(), 10);
+        ReflectionTestUtils.setField(mailDispatcher, "from", "noreply@yalli.org");
+        ReflectionTestUtils.setField(mailDispatcher, "workerCount", 1);
+        ReflectionTestUtils.setField(mailDispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(mailDispatcher, "backoffMs", 1000L);
+        ReflectionTestUtils.setField(mailDispatcher, "maxBackoffMs", 60000L);
+        ReflectionTestUtils.setField(mailDispatcher, "idleTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(mailDispatcher, "pollBatchSize", 10);
+        mailDispatcher.startWorkers();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailDispatcher.stopWorkers();
+    }
+
+    @Test
+    void deliversMailAndMarksItSent() throws Exception {
+        var mail = claimable(1L, "user@yalli.org");
+
+        mailDispatcher.enqueue(mail);
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(greenMail.getReceivedMessages()[0].getSubject()).isEqualTo("Subject");
+        verify(mailOutboxRepository, timeout(5000))
+                .markSent(eq(1L), eq(MailStatus.SENDING), eq(MailStatus.SENT), any());
+    }
+
+    @Test
+    void failedStatusWriteAfterSendDoesNotRequeueTheMail() throws Exception {
+        var mail = claimable(2L, "user@yalli.org");
+        when(mailOutboxRepository.markSent(eq(2L), any(), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"));
+
+        mailDispatcher.enqueue(mail);
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        verify(mailOutboxRepository, timeout(5000)).markSent(eq(2L), any(), any(), any());
+        Thread.sleep(500);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        verify(mailOutboxRepository, times(1)).save(mail);
+        assertThat(mail.getAttempts()).isZero();
+    }
+
+    @Test
+    void sendFailureSchedulesRetry() {
+        var mail = claimable(3L, "not a valid address@@");
+
+        mailDispatcher.enqueue(mail);
+
+        verify(mailOutboxRepository, timeout(5000).times(2)).save(mail);
+        assertThat(mail.getStatus()).isEqualTo(MailStatus.PENDING);
+        assertThat(mail.getAttempts()).isEqualTo(1);
+        assertThat(mail.getNextAttemptAt()).isNotNull();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    private MailOutboxEntity claimable(Long id, String recipient) {
+        var mail = new MailOutboxEntity();
+        mail.setId(id);
+        mail.setRecipient(recipient);
+        mail.setSubject("Subject");
+        mail.setBody("Body");
+        when(mailOutboxRepository.save(mail)).thenReturn(mail);
+        when(mailOutboxRepository.claim(eq(id), eq(MailStatus.PENDING), eq(MailStatus.SENDING), any())).thenReturn(1);
+        when(mailOutboxRepository.findById(id)).thenReturn(Optional.of(mail));
+        when(mailOutboxRepository.markAttempting(eq(id), eq(MailStatus.SENDING), any())).thenReturn(1);
+        return mail;
+    }
+}
@@ -0,0 +1,130 @@
+package org.yalli.wah.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.yalli.wah.dao.entity.MailOutboxEntity;
+import org.yalli.wah.dao.repository.MailOutboxRepository;
+import org.yalli.wah.model.enums.MailStatus;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers
+class MailOutboxRecoveryTest {
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MailOutboxRepository outbox;
+    private MailDispatcher mailDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        mailOutboxRepository.deleteAll();
+        outbox = mock(MailOutboxRepository.class, delegatesTo(mailOutboxRepository));
+        var mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        mailDispatcher = new MailDispatcher(outbox, mailSender, new SimpleMeterRegistry(), 10);
+        ReflectionTestUtils.setField(mailDispatcher, "from", "noreply@yalli.org");
+        ReflectionTestUtils.setField(mailDispatcher, "workerCount", 1);
+        ReflectionTestUtils.setField(mailDispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(mailDispatcher, "backoffMs", 1000L);
+        ReflectionTestUtils.setField(mailDispatcher, "maxBackoffMs", 60000L);
+        ReflectionTestUtils.setField(mailDispatcher, "idleTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(mailDispatcher, "pollBatchSize", 10);
+        mailDispatcher.startWorkers();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailDispatcher.stopWorkers();
+    }
+
+    @Test
+    void expiredClaimOfAttemptedSendIsNotSentAgain() {
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+                .when(outbox).markSent(any(), any(), any(), any());
+        var mail = mailOutboxRepository.save(pending());
+
+        mailDispatcher.pollOutbox();
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        verify(outbox, timeout(5000)).markSent(eq(mail.getId()), any(), any(), any());
+
+        expireClaims();
+        mailDispatcher.pollOutbox();
+
+        assertThat(greenMail.waitForIncomingEmail(2000, 2)).isFalse();
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(mailOutboxRepository.findById(mail.getId())).get()
+                .extracting(MailOutboxEntity::getStatus).isEqualTo(MailStatus.SENDING);
+    }
+
+    @Test
+    void expiredClaimWithoutSendAttemptIsReleasedAndSent() {
+        var mail = pending();
+        mail.setStatus(MailStatus.SENDING);
+        mail.setClaimedAt(LocalDateTime.now());
+        mailOutboxRepository.save(mail);
+
+        mailDispatcher.pollOutbox();
+        assertThat(greenMail.waitForIncomingEmail(2000, 1)).isFalse();
+
+        expireClaims();
+        mailDispatcher.pollOutbox();
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    private void expireClaims() {
+        jdbcTemplate.update("UPDATE mail_outbox SET claimed_at = now() - interval '1 hour' WHERE status = 'SENDING'");
+    }
+
+    private static MailOutboxEntity pending() {
+        var mail = new MailOutboxEntity();
+        mail.setRecipient("user@yalli.org");
+        mail.setSubject("Subject");
+        mail.setBody("Body");
+        mail.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        return mail;
+    }
+}
@@ -0,0 +1,95 @@
+package org.yalli.wah.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.yalli.wah.dao.entity.GroupEntity;
+import org.yalli.wah.dao.repository.GroupRepository;
+import org.yalli.wah.model.dto.ScrollRequest;
+import org.yalli.wah.model.dto.SliceDto;
+import org.yalli.wah.model.exception.InvalidInputException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class KeysetPaginationTest {
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Map<String, KeysetPagination.SortKey<GroupEntity>> SORT_KEYS = KeysetPagination.sortKeys(
+            new KeysetPagination.SortKey<>("title", GroupEntity::getTitle, Function.identity()));
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @BeforeEach
+    void seed() {
+        for (String title : Arrays.asList("b", null, "a", null, "b", "c", null, "null")) {
+            var group = new GroupEntity();
+            group.setTitle(title);
+            group.setMemberCount(0L);
+            group.setRenameCount((short) 0);
+            groupRepository.save(group);
+        }
+        groupRepository.flush();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Sort.Direction.class)
+    void scrollVisitsEveryRowOnceInDatabaseOrder(Sort.Direction direction) {
+        var expected = groupRepository.findAll(Sort.by(direction, "title").and(Sort.by(direction, "id")))
+                .stream().map(GroupEntity::getId).toList();
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            var slice = scroll(cursor, 2, direction);
+            slice.getContent().forEach(group -> visited.add(group.getId()));
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+        assertThat(visited).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void cursorAfterNullKeyCarriesNoValue() {
+        var slice = scroll(null, 1, Sort.Direction.DESC);
+        assertThat(slice.getContent().get(0).getTitle()).isNull();
+        assertThat(KeysetCursor.decode(slice.getNextCursor()).value()).isNull();
+    }
+
+    @Test
+    void literalNullTitleIsNotConfusedWithNullKey() {
+        var slice = scroll(null, 10, Sort.Direction.ASC);
+        assertThat(slice.getContent()).extracting(GroupEntity::getTitle)
+                .containsExactly("a", "b", "b", "c", "null", null, null, null);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> scroll("%%%", 2, Sort.Direction.ASC)).isInstanceOf(InvalidInputException.class);
+    }
+
+    private SliceDto<GroupEntity> scroll(String cursor, int size, Sort.Direction direction) {
+        return KeysetPagination.scroll(groupRepository, Specification.where(null),
+                new ScrollRequest(cursor, size, "title", direction), SORT_KEYS, GroupEntity::getId);
+    }
+}